@@ -1,9 +1,13 @@
 package com.csanford.dsdbot;
 
-import com.csanford.dsdbot.constants.SecureConstants;
+import com.csanford.dsdbot.config.ConfigManager;
 import com.csanford.dsdbot.connector.DiscordConnector;
+import com.csanford.dsdbot.connector.ReconciliationSweeper;
 import com.csanford.dsdbot.connector.SlackConnector;
+import com.csanford.dsdbot.relay.RelayDispatcher;
+import com.csanford.dsdbot.relay.RelayLog;
 import java.io.IOException;
+import java.nio.file.Paths;
 import javax.security.auth.login.LoginException;
 import net.dv8tion.jda.core.AccountType;
 import net.dv8tion.jda.core.JDA;
@@ -21,31 +25,51 @@ public class App
 {
 
     private static final Logger LOG = LoggerFactory.getLogger( App.class );
+    private static final String DEFAULT_CONFIG = "dsdbot.properties";
 
     public static void main( String[] args ) throws LoginException, IllegalArgumentException, InterruptedException, RateLimitedException, IOException
     {
-	// Create message history
-	MessageHistory messageHistory = new MessageHistory();
+	// Load configuration, from the first argument if there is one
+	String configFile = args.length > 0 ? args[0] : DEFAULT_CONFIG;
+	LOG.info( "Loading configuration from {}", configFile );
+	ConfigManager configManager = new ConfigManager( Paths.get( configFile ) );
+
+	// Create message history and relay dispatcher
+	MessageHistory messageHistory = new MessageHistory( configManager.get() );
+	RelayDispatcher relayDispatcher = new RelayDispatcher( configManager.get() );
+	configManager.addListener( messageHistory::applyConfig );
+	configManager.addListener( relayDispatcher::applyConfig );
+	RelayLog.applyConfig( configManager.get() );
+	configManager.addListener( RelayLog::applyConfig );
+	configManager.startWatching();
 
 	// Setup Discord API connection
 	LOG.info( "Connecting to Discord" );
 	JDA jda = new JDABuilder( AccountType.BOT )
-		.setToken( SecureConstants.DISCORD_TOKEN ).buildBlocking();
+		.setToken( configManager.get().getDiscordToken() ).buildBlocking();
 
 	// Setup Slack Connector
 	LOG.info( "Creating Slack Connector" );
-	SlackConnector slackConnector = new SlackConnector( jda, messageHistory );
+	SlackConnector slackConnector
+		= new SlackConnector( jda, messageHistory, configManager, relayDispatcher );
 	slackConnector.addListeners();
 
 	// Setup Discord Connector
 	LOG.info( "Creating Discord Connector" );
-	DiscordConnector discordConnector
-		= new DiscordConnector( slackConnector.getSlackSession(), messageHistory );
+	DiscordConnector discordConnector = new DiscordConnector( slackConnector.getSlackSession(),
+		messageHistory, configManager, relayDispatcher );
 	LOG.info( "Binding JDA Event Listener" );
 	jda.addEventListener( discordConnector );
 
 	// Connect to slack server
 	LOG.info( "Connecting to Slack" );
 	slackConnector.connect();
+
+	// Start repairing edits and deletes that were missed
+	LOG.info( "Starting reconciliation sweeper" );
+	ReconciliationSweeper sweeper = new ReconciliationSweeper( jda, slackConnector, discordConnector,
+		messageHistory, configManager, relayDispatcher );
+	configManager.addListener( sweeper::applyConfig );
+	sweeper.start();
     }
 }
@@ -1,92 +1,157 @@
 package com.csanford.dsdbot;
 
-import com.csanford.dsdbot.constants.Constants;
-import java.util.HashMap;
+import com.csanford.dsdbot.config.BotConfig;
+import com.csanford.dsdbot.config.EvictionPolicy;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import net.dv8tion.jda.core.entities.Message;
 
 /**
  * Message history is a class used to keep track of the messages sent
- * from both Slack to Discord and Discord to Slack.
+ * from both Slack to Discord and Discord to Slack. The capacity and eviction
+ * policy come from the configuration and can be changed without losing the
+ * messages already saved. Each message also keeps where it was relayed from
+ * and a fingerprint of the content so missed edits can be found later.
  * @author csanford
  * #date Sep 22, 2018
  */
 public class MessageHistory
 {
-	private static Map< String, Message> stodMessages;
-	private static Queue< String> stodHistory;
-	private static Map< Long, String> dtosMessages;
-	private static Queue< Long> dtosHistory;
-	
-	public MessageHistory()
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private BoundedMap< String, DiscordEntry> stodMessages;
+	private BoundedMap< Long, SlackEntry> dtosMessages;
+
+	/**
+	 * Create an empty message history.
+	 * @param config The configuration to size the history with.
+	 */
+	public MessageHistory( BotConfig config )
+	{
+		stodMessages = new BoundedMap<>( config.getHistoryCapacity(), config.getHistoryEviction() );
+		dtosMessages = new BoundedMap<>( config.getHistoryCapacity(), config.getHistoryEviction() );
+	}
+
+	/**
+	 * Fingerprint message content so it can be compared without keeping the
+	 * content around. This is a 64 bit FNV-1a hash of the characters.
+	 * @param content The message content.
+	 * @return The fingerprint.
+	 */
+	public static long fingerprint( String content )
+	{
+		long hash = FNV_OFFSET;
+		for ( int i = 0; i < content.length(); i++ )
+		{
+			hash ^= content.charAt( i );
+			hash *= FNV_PRIME;
+		}
+		return hash;
+	}
+
+	/**
+	 * Apply a new capacity and eviction policy. If the capacity shrinks the
+	 * messages that would be evicted first are dropped.
+	 * @param config The new configuration.
+	 */
+	public synchronized void applyConfig( BotConfig config )
 	{
-		stodMessages = new HashMap<>();
-		stodHistory = new ConcurrentLinkedQueue<>();
-		dtosMessages = new HashMap<>();
-		dtosHistory = new ConcurrentLinkedQueue<>();
+		stodMessages = stodMessages.resize( config.getHistoryCapacity(), config.getHistoryEviction() );
+		dtosMessages = dtosMessages.resize( config.getHistoryCapacity(), config.getHistoryEviction() );
 	}
 
 	/**
-	 * Removes a message sent from Discord to Slack from history. Returns the Slack
-	 * timestamp of the removed message or null if one couldn't be found.
+	 * Removes a message sent from Discord to Slack from history. Returns the
+	 * entry of the removed message or null if one couldn't be found.
 	 * @param messageID The Discord message ID associated with the Slack message.
-	 * @return The timestamp of the Slack message or null if one could not be found.
+	 * @return The Slack message entry or null if one could not be found.
 	 */
-	public String removeSlackMessage( Long messageID )
+	public synchronized SlackEntry removeSlackEntry( Long messageID )
 	{
-		dtosHistory.remove( messageID );
 		return dtosMessages.remove( messageID );
 	}
-	
+
 	/**
 	 * Removes a message sent from Slack to Discord from the history. Returns the
-	 * Discord message or null if one could not be found.
+	 * entry of the removed message or null if one could not be found.
 	 * @param timestamp The Slack timestamp associated with the Discord message.
-	 * @return The Discord message or null of one could not be found.
+	 * @return The Discord message entry or null of one could not be found.
 	 */
-	public Message removeDiscordMessage( String timestamp )
+	public synchronized DiscordEntry removeDiscordEntry( String timestamp )
 	{
-		stodHistory.remove( timestamp );
 		return stodMessages.remove( timestamp );
 	}
-	
+
 	/**
-	 * Retrieve the Slack timestamp associated with a Discord messageID.
+	 * Retrieve the Slack message entry associated with a Discord messageID.
 	 * @param messageID A Discord message ID.
-	 * @return A timestamp for a Slack message or null if one could not be found.
+	 * @return The Slack message entry or null if one could not be found.
 	 */
-	public String getSlackTimestamp( Long messageID )
+	public synchronized SlackEntry getSlackEntry( Long messageID )
 	{
 		return dtosMessages.get( messageID );
 	}
-	
+
 	/**
-	 * Retrieve the Discord message associated with a Slack timestamp.
+	 * Retrieve the Discord message entry associated with a Slack timestamp.
 	 * @param timestamp A Slack timestamp.
-	 * @return A message for a Slack timestamp or null if one could not be found.
+	 * @return The Discord message entry or null if one could not be found.
 	 */
-	public Message getDiscordMessage( String timestamp )
+	public synchronized DiscordEntry getDiscordEntry( String timestamp )
 	{
 		return stodMessages.get( timestamp );
 	}
-	
+
 	/**
 	 * Save a discord message with a slack timestamp.
 	 *
 	 * @param timestamp Timestamp of slack message.
 	 * @param message Discord message object.
+	 * @param slackChannel ID of the Slack channel the message was posted in.
+	 * @param threadTimestamp Timestamp of the Slack thread the message was
+	 * posted in, or null if it wasn't posted in a thread.
+	 * @param route The name of the route the message went through.
+	 * @param fingerprint Fingerprint of the Slack message content.
+	 */
+	public synchronized void saveDiscordMessage( String timestamp, Message message, String slackChannel,
+			String threadTimestamp, String route, long fingerprint )
+	{
+		stodMessages.put( timestamp,
+				new DiscordEntry( message, slackChannel, threadTimestamp, route, fingerprint ) );
+	}
+
+	/**
+	 * Replace the saved Discord message for a slack timestamp, keeping the
+	 * fingerprint. Does nothing if the timestamp is no longer in the history.
+	 *
+	 * @param timestamp Timestamp of slack message.
+	 * @param message The up to date Discord message object.
+	 */
+	public synchronized void refreshDiscordMessage( String timestamp, Message message )
+	{
+		DiscordEntry entry = stodMessages.get( timestamp );
+		if ( entry != null )
+		{
+			stodMessages.put( timestamp, entry.with( message, entry.getFingerprint() ) );
+		}
+	}
+
+	/**
+	 * Replace the saved Discord message for a slack timestamp after an edit.
+	 * Does nothing if the timestamp is no longer in the history.
+	 *
+	 * @param timestamp Timestamp of slack message.
+	 * @param message The edited Discord message object.
+	 * @param fingerprint Fingerprint of the new Slack message content.
 	 */
-	public void saveDiscordMessage( String timestamp, Message message )
+	public synchronized void editDiscordMessage( String timestamp, Message message, long fingerprint )
 	{
-		stodHistory.add( timestamp );
-		if ( stodHistory.size() > Constants.MAX_MSG_HISTORY - 1 )
+		DiscordEntry entry = stodMessages.get( timestamp );
+		if ( entry != null )
 		{
-			// Log this probably
-			stodMessages.remove( stodHistory.remove() );
+			stodMessages.put( timestamp, entry.with( message, fingerprint ) );
 		}
-		stodMessages.put( timestamp, message );
 	}
 
 	/**
@@ -94,14 +159,215 @@ public class MessageHistory
 	 *
 	 * @param messageId The Discord long message id.
 	 * @param timestamp Timestamp of slack message.
+	 * @param slackChannel ID of the Slack channel the message was sent to.
+	 * @param discordChannel ID of the Discord channel the message was posted in.
+	 * @param route The name of the route the message went through.
+	 * @param fingerprint Fingerprint of the Discord message content.
+	 */
+	public synchronized void saveSlackMessage( Long messageId, String timestamp, String slackChannel,
+			long discordChannel, String route, long fingerprint )
+	{
+		dtosMessages.put( messageId,
+				new SlackEntry( timestamp, slackChannel, discordChannel, route, fingerprint ) );
+	}
+
+	/**
+	 * Replace the fingerprint of a relayed Discord message after an edit.
+	 * Does nothing if the message is no longer in the history.
+	 *
+	 * @param messageId The Discord long message id.
+	 * @param fingerprint Fingerprint of the new Discord message content.
+	 */
+	public synchronized void editSlackMessage( Long messageId, long fingerprint )
+	{
+		SlackEntry entry = dtosMessages.get( messageId );
+		if ( entry != null )
+		{
+			dtosMessages.put( messageId, entry.with( fingerprint ) );
+		}
+	}
+
+	/**
+	 * Copy the messages sent from Slack to Discord. Unlike the getters this
+	 * does not count as a lookup for LRU eviction.
+	 * @return The Discord messages keyed by Slack timestamp.
+	 */
+	public synchronized Map< String, DiscordEntry> getDiscordEntries()
+	{
+		return new LinkedHashMap<>( stodMessages );
+	}
+
+	/**
+	 * Copy the messages sent from Discord to Slack. Unlike the getters this
+	 * does not count as a lookup for LRU eviction.
+	 * @return The Slack messages keyed by Discord message ID.
+	 */
+	public synchronized Map< Long, SlackEntry> getSlackEntries()
+	{
+		return new LinkedHashMap<>( dtosMessages );
+	}
+
+	/**
+	 * A Discord message that was relayed from Slack.
 	 */
-	public void saveSlackMessage( Long messageId, String timestamp )
+	public static final class DiscordEntry
 	{
-		dtosHistory.add( messageId );
-		if ( dtosHistory.size() > Constants.MAX_MSG_HISTORY - 1 )
+		private final Message message;
+		private final String slackChannel;
+		private final String threadTimestamp;
+		private final String route;
+		private final long fingerprint;
+
+		DiscordEntry( Message message, String slackChannel, String threadTimestamp, String route,
+				long fingerprint )
+		{
+			this.message = message;
+			this.slackChannel = slackChannel;
+			this.threadTimestamp = threadTimestamp;
+			this.route = route;
+			this.fingerprint = fingerprint;
+		}
+
+		DiscordEntry with( Message newMessage, long newFingerprint )
+		{
+			return new DiscordEntry( newMessage, slackChannel, threadTimestamp, route, newFingerprint );
+		}
+
+		public Message getMessage()
+		{
+			return message;
+		}
+
+		/**
+		 * @return ID of the Slack channel the message was relayed from.
+		 */
+		public String getSlackChannel()
+		{
+			return slackChannel;
+		}
+
+		/**
+		 * @return Timestamp of the Slack thread the message was relayed from,
+		 * or null if it wasn't posted in a thread.
+		 */
+		public String getThreadTimestamp()
+		{
+			return threadTimestamp;
+		}
+
+		/**
+		 * @return The name of the route the message went through.
+		 */
+		public String getRoute()
+		{
+			return route;
+		}
+
+		/**
+		 * @return Fingerprint of the Slack content the message was relayed from.
+		 */
+		public long getFingerprint()
+		{
+			return fingerprint;
+		}
+	}
+
+	/**
+	 * A Slack message that was relayed from Discord.
+	 */
+	public static final class SlackEntry
+	{
+		private final String timestamp;
+		private final String slackChannel;
+		private final long discordChannel;
+		private final String route;
+		private final long fingerprint;
+
+		SlackEntry( String timestamp, String slackChannel, long discordChannel, String route, long fingerprint )
+		{
+			this.timestamp = timestamp;
+			this.slackChannel = slackChannel;
+			this.discordChannel = discordChannel;
+			this.route = route;
+			this.fingerprint = fingerprint;
+		}
+
+		SlackEntry with( long newFingerprint )
+		{
+			return new SlackEntry( timestamp, slackChannel, discordChannel, route, newFingerprint );
+		}
+
+		public String getTimestamp()
+		{
+			return timestamp;
+		}
+
+		/**
+		 * @return ID of the Slack channel the message was relayed to.
+		 */
+		public String getSlackChannel()
+		{
+			return slackChannel;
+		}
+
+		/**
+		 * @return ID of the Discord channel the message was relayed from.
+		 */
+		public long getDiscordChannel()
+		{
+			return discordChannel;
+		}
+
+		/**
+		 * @return The name of the route the message went through.
+		 */
+		public String getRoute()
+		{
+			return route;
+		}
+
+		/**
+		 * @return Fingerprint of the Discord content the message was relayed from.
+		 */
+		public long getFingerprint()
+		{
+			return fingerprint;
+		}
+	}
+
+	/**
+	 * A map that forgets its eldest entry once it grows past its capacity.
+	 * Depending on the eviction policy the eldest entry is either the first
+	 * one saved or the one looked up least recently.
+	 */
+	private static final class BoundedMap< K, V> extends LinkedHashMap< K, V>
+	{
+		private final int capacity;
+		private final EvictionPolicy eviction;
+
+		BoundedMap( int capacity, EvictionPolicy eviction )
+		{
+			super( 16, 0.75f, eviction == EvictionPolicy.LRU );
+			this.capacity = capacity;
+			this.eviction = eviction;
+		}
+
+		BoundedMap< K, V> resize( int newCapacity, EvictionPolicy newEviction )
+		{
+			if ( newCapacity == capacity && newEviction == eviction )
+			{
+				return this;
+			}
+			// Copying in iteration order keeps the newest entries
+			BoundedMap< K, V> resized = new BoundedMap<>( newCapacity, newEviction );
+			resized.putAll( this );
+			return resized;
+		}
+
+		@Override
+		protected boolean removeEldestEntry( Map.Entry< K, V> eldest )
 		{
-			dtosMessages.remove( dtosHistory.remove() );
+			return size() > capacity;
 		}
-		dtosMessages.put( messageId, timestamp );
 	}
 }
@@ -0,0 +1,373 @@
+package com.csanford.dsdbot.config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * An immutable snapshot of the bot configuration. Settings are read from a
+ * properties file and can be overridden by environment variables named after
+ * the setting, so DSDBOT_SLACK_TOKEN overrides slack.token.
+ *
+ * @author csanford
+ * #date Oct 19, 2026
+ */
+public final class BotConfig
+{
+
+	private static final String ENV_PREFIX = "DSDBOT_";
+	private static final String USER_PREFIX = "users.";
+	private static final String WITH_DELIMITER = "((?<=%1$s)|(?=%1$s))";
+
+	private final String discordToken;
+	private final String slackToken;
+	private final List<Route> routes;
+	private final Map<String, Route> routesBySlackChannel;
+	private final Map<String, Route> routesByDiscordChannel;
+	private final UserBiMap users;
+	private final int historyCapacity;
+	private final EvictionPolicy historyEviction;
+	private final int relayThreads;
+	private final int relayQueueSize;
+	private final double relayRatePerSecond;
+	private final int debugSample;
+	private final int reconcileIntervalSeconds;
+	private final int reconcilePageSize;
+	private final double reconcileRatePerSecond;
+	private final Pattern discordMentionSplitter;
+	private final Pattern slackMentionSplitter;
+
+	private BotConfig( Properties props )
+	{
+		discordToken = getRequired( props, "discord.token" );
+		slackToken = getRequired( props, "slack.token" );
+
+		List<Route> parsedRoutes = new ArrayList<>();
+		routesBySlackChannel = new HashMap<>();
+		routesByDiscordChannel = new HashMap<>();
+		for ( String value : props.getProperty( "routes", "general:slack_comms" ).split( "," ) )
+		{
+			if ( value.trim().isEmpty() )
+			{
+				continue;
+			}
+			Route route = Route.parse( value );
+			parsedRoutes.add( route );
+			routesBySlackChannel.putIfAbsent( route.getSlackChannel(), route );
+			routesByDiscordChannel.putIfAbsent( route.getDiscordChannel().toLowerCase( Locale.ROOT ), route );
+		}
+		if ( parsedRoutes.isEmpty() )
+		{
+			throw new IllegalArgumentException( "At least one route must be configured" );
+		}
+		routes = Collections.unmodifiableList( parsedRoutes );
+
+		users = new UserBiMap();
+		for ( String key : props.stringPropertyNames() )
+		{
+			if ( key.startsWith( USER_PREFIX ) )
+			{
+				String[] ids = props.getProperty( key ).trim().split( ":" );
+				if ( ids.length != 2 )
+				{
+					throw new IllegalArgumentException( "Invalid user mapping for " + key
+							+ ", expected discordId:slackId" );
+				}
+				users.put( ids[0].trim(), ids[1].trim() );
+			}
+		}
+
+		historyCapacity = getInt( props, "history.capacity", 1000, 1 );
+		historyEviction = getEnum( props, "history.eviction", EvictionPolicy.FIFO );
+		relayThreads = getInt( props, "relay.threads", 1, 1 );
+		relayQueueSize = getInt( props, "relay.queue.size", 1000, 1 );
+		relayRatePerSecond = getDouble( props, "relay.rate.per.second", 0 );
+		debugSample = getInt( props, "logging.debug.sample", 1, 1 );
+		reconcileIntervalSeconds = getInt( props, "reconcile.interval.seconds", 300, 0 );
+		reconcilePageSize = getInt( props, "reconcile.page.size", 100, 1 );
+		if ( reconcilePageSize > 100 )
+		{
+			throw new IllegalArgumentException( "reconcile.page.size can be at most 100 but was " + reconcilePageSize );
+		}
+		reconcileRatePerSecond = getDouble( props, "reconcile.rate.per.second", 1 );
+		if ( reconcileRatePerSecond == 0 )
+		{
+			throw new IllegalArgumentException( "reconcile.rate.per.second must be greater than zero" );
+		}
+		discordMentionSplitter = getSplitter( props, "mention.discord", "<@!?(\\d){17,18}>" );
+		slackMentionSplitter = getSplitter( props, "mention.slack", "<@U[A-z0-9]{8}>" );
+	}
+
+	/**
+	 * Load the configuration from a properties file, then apply any DSDBOT_*
+	 * environment variables on top of it. A missing file is not an error so the
+	 * bot can be configured from the environment alone.
+	 *
+	 * @param file The properties file.
+	 * @return The loaded configuration.
+	 * @throws IOException Error reading the file.
+	 * @throws IllegalArgumentException A setting is missing or invalid.
+	 */
+	public static BotConfig load( Path file ) throws IOException
+	{
+		return load( file, System.getenv() );
+	}
+
+	/**
+	 * Load the configuration from a properties file, then apply the DSDBOT_*
+	 * variables of the given environment on top of it.
+	 *
+	 * @param file The properties file.
+	 * @param env The environment variables.
+	 * @return The loaded configuration.
+	 * @throws IOException Error reading the file.
+	 * @throws IllegalArgumentException A setting is missing or invalid.
+	 */
+	static BotConfig load( Path file, Map<String, String> env ) throws IOException
+	{
+		Properties props = new Properties();
+		if ( Files.exists( file ) )
+		{
+			try ( Reader reader = Files.newBufferedReader( file, StandardCharsets.UTF_8 ) )
+			{
+				props.load( reader );
+			}
+		}
+		env.forEach( ( name, value ) ->
+		{
+			if ( name.startsWith( ENV_PREFIX ) )
+			{
+				String key = name.substring( ENV_PREFIX.length() ).toLowerCase( Locale.ROOT ).replace( '_', '.' );
+				props.setProperty( key, value );
+			}
+		} );
+		return new BotConfig( props );
+	}
+
+	public String getDiscordToken()
+	{
+		return discordToken;
+	}
+
+	public String getSlackToken()
+	{
+		return slackToken;
+	}
+
+	/**
+	 * @return Every configured route, the first one being the default route.
+	 */
+	public List<Route> getRoutes()
+	{
+		return routes;
+	}
+
+	/**
+	 * Find the route for a Slack channel. Messages from channels that are not
+	 * part of a route go through the default route.
+	 *
+	 * @param channelName The name of the Slack channel.
+	 * @return The route for the channel or the default route.
+	 */
+	public Route routeForSlackChannel( String channelName )
+	{
+		return routesBySlackChannel.getOrDefault( channelName, routes.get( 0 ) );
+	}
+
+	/**
+	 * Find the route for a Discord text channel. Messages from channels that
+	 * are not part of a route go through the default route.
+	 *
+	 * @param channelName The name of the Discord text channel.
+	 * @return The route for the channel or the default route.
+	 */
+	public Route routeForDiscordChannel( String channelName )
+	{
+		Route route = channelName == null ? null
+				: routesByDiscordChannel.get( channelName.toLowerCase( Locale.ROOT ) );
+		return route != null ? route : routes.get( 0 );
+	}
+
+	public UserBiMap getUsers()
+	{
+		return users;
+	}
+
+	public int getHistoryCapacity()
+	{
+		return historyCapacity;
+	}
+
+	public EvictionPolicy getHistoryEviction()
+	{
+		return historyEviction;
+	}
+
+	/**
+	 * @return Relay worker threads. More than one lets work for the same
+	 * message run out of order.
+	 */
+	public int getRelayThreads()
+	{
+		return relayThreads;
+	}
+
+	public int getRelayQueueSize()
+	{
+		return relayQueueSize;
+	}
+
+	/**
+	 * @return The maximum number of relay calls per second, zero for no limit.
+	 */
+	public double getRelayRatePerSecond()
+	{
+		return relayRatePerSecond;
+	}
+
+	/**
+	 * @return How many relay debug messages there are for each one logged.
+	 */
+	public int getDebugSample()
+	{
+		return debugSample;
+	}
+
+	/**
+	 * @return Seconds between reconciliation passes, zero when disabled.
+	 */
+	public int getReconcileIntervalSeconds()
+	{
+		return reconcileIntervalSeconds;
+	}
+
+	/**
+	 * @return How many recent messages to check on each side of a route.
+	 */
+	public int getReconcilePageSize()
+	{
+		return reconcilePageSize;
+	}
+
+	/**
+	 * @return The maximum number of reconciliation calls per second.
+	 */
+	public double getReconcileRatePerSecond()
+	{
+		return reconcileRatePerSecond;
+	}
+
+	/**
+	 * @return A pattern that splits Discord message content around user
+	 * mentions, keeping the mentions.
+	 */
+	public Pattern getDiscordMentionSplitter()
+	{
+		return discordMentionSplitter;
+	}
+
+	/**
+	 * @return A pattern that splits Slack message content around user
+	 * mentions, keeping the mentions.
+	 */
+	public Pattern getSlackMentionSplitter()
+	{
+		return slackMentionSplitter;
+	}
+
+	private static String getRequired( Properties props, String key )
+	{
+		String value = props.getProperty( key );
+		if ( value == null || value.trim().isEmpty() )
+		{
+			throw new IllegalArgumentException( "Missing required setting " + key );
+		}
+		return value.trim();
+	}
+
+	private static int getInt( Properties props, String key, int def, int min )
+	{
+		String value = props.getProperty( key );
+		if ( value == null || value.trim().isEmpty() )
+		{
+			return def;
+		}
+		try
+		{
+			int parsed = Integer.parseInt( value.trim() );
+			if ( parsed < min )
+			{
+				throw new IllegalArgumentException( key + " must be at least " + min + " but was " + parsed );
+			}
+			return parsed;
+		} catch ( NumberFormatException ex )
+		{
+			throw new IllegalArgumentException( "Invalid number for " + key + ": " + value, ex );
+		}
+	}
+
+	private static double getDouble( Properties props, String key, double def )
+	{
+		String value = props.getProperty( key );
+		if ( value == null || value.trim().isEmpty() )
+		{
+			return def;
+		}
+		try
+		{
+			double parsed = Double.parseDouble( value.trim() );
+			if ( parsed < 0 || Double.isNaN( parsed ) )
+			{
+				throw new IllegalArgumentException( key + " must not be negative but was " + parsed );
+			}
+			return parsed;
+		} catch ( NumberFormatException ex )
+		{
+			throw new IllegalArgumentException( "Invalid number for " + key + ": " + value, ex );
+		}
+	}
+
+	private static EvictionPolicy getEnum( Properties props, String key, EvictionPolicy def )
+	{
+		String value = props.getProperty( key );
+		if ( value == null || value.trim().isEmpty() )
+		{
+			return def;
+		}
+		try
+		{
+			return EvictionPolicy.valueOf( value.trim().toUpperCase( Locale.ROOT ) );
+		} catch ( IllegalArgumentException ex )
+		{
+			throw new IllegalArgumentException( "Invalid value for " + key + ": " + value, ex );
+		}
+	}
+
+	private static Pattern getSplitter( Properties props, String key, String def )
+	{
+		String mention = props.getProperty( key );
+		if ( mention == null || mention.trim().isEmpty() )
+		{
+			mention = def;
+		}
+		mention = mention.trim();
+		try
+		{
+			return Pattern.compile( String.format( WITH_DELIMITER, mention ) );
+		} catch ( PatternSyntaxException ex )
+		{
+			throw new IllegalArgumentException( "Invalid pattern for " + key + ": " + mention, ex );
+		}
+	}
+}
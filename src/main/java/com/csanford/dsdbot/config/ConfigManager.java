@@ -0,0 +1,165 @@
+package com.csanford.dsdbot.config;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the current configuration and reloads it whenever the configuration
+ * file changes. Components that cache settings register a listener so new
+ * values take effect without restarting the bot. Tokens are only read at
+ * startup.
+ *
+ * @author csanford
+ * #date Oct 19, 2026
+ */
+public class ConfigManager
+{
+
+	private static final Logger LOG = LoggerFactory.getLogger( ConfigManager.class );
+	// Editors tend to write a file in several steps, give them a moment
+	private static final long SETTLE_MILLIS = 250;
+
+	private final Path file;
+	private final List<Consumer<BotConfig>> listeners;
+	private volatile BotConfig config;
+
+	/**
+	 * Load the configuration from a file.
+	 *
+	 * @param file The properties file to load and watch.
+	 * @throws IOException Error reading the file.
+	 * @throws IllegalArgumentException A setting is missing or invalid.
+	 */
+	public ConfigManager( Path file ) throws IOException
+	{
+		this.file = file.toAbsolutePath();
+		this.listeners = new CopyOnWriteArrayList<>();
+		this.config = BotConfig.load( this.file );
+	}
+
+	/**
+	 * Getter for the current configuration. Callers should not hold on to the
+	 * result for longer than the work they are doing.
+	 *
+	 * @return The current configuration.
+	 */
+	public BotConfig get()
+	{
+		return config;
+	}
+
+	/**
+	 * Add a listener that is called with the new configuration after every
+	 * successful reload.
+	 *
+	 * @param listener The listener.
+	 */
+	public void addListener( Consumer<BotConfig> listener )
+	{
+		listeners.add( listener );
+	}
+
+	/**
+	 * Reload the configuration file. If the new configuration is invalid the
+	 * current one is kept.
+	 */
+	public void reload()
+	{
+		BotConfig updated;
+		try
+		{
+			updated = BotConfig.load( file );
+		} catch ( IOException | IllegalArgumentException ex )
+		{
+			LOG.error( "Could not reload configuration from {}, keeping current settings", file, ex );
+			return;
+		}
+
+		BotConfig previous = config;
+		if ( !previous.getDiscordToken().equals( updated.getDiscordToken() )
+				|| !previous.getSlackToken().equals( updated.getSlackToken() ) )
+		{
+			LOG.warn( "Token changes only take effect after a restart" );
+		}
+		config = updated;
+		LOG.info( "Configuration reloaded from {}", file );
+		for ( Consumer<BotConfig> listener : listeners )
+		{
+			// One broken listener must not stop the others or the watcher
+			try
+			{
+				listener.accept( updated );
+			} catch ( RuntimeException ex )
+			{
+				LOG.error( "Could not apply reloaded configuration", ex );
+			}
+		}
+	}
+
+	/**
+	 * Start watching the configuration file for changes on a daemon thread.
+	 *
+	 * @throws IOException Error registering the watch service.
+	 */
+	public void startWatching() throws IOException
+	{
+		WatchService watchService = file.getFileSystem().newWatchService();
+		file.getParent().register( watchService,
+				StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY );
+
+		Thread watcher = new Thread( () -> watch( watchService ), "config-watcher" );
+		watcher.setDaemon( true );
+		watcher.start();
+		LOG.info( "Watching {} for changes", file );
+	}
+
+	private void watch( WatchService watchService )
+	{
+		try
+		{
+			while ( true )
+			{
+				WatchKey key = watchService.take();
+				boolean changed = pollChanged( key );
+				if ( changed )
+				{
+					Thread.sleep( SETTLE_MILLIS );
+					// Swallow the events from the rest of the write
+					WatchKey pending;
+					while ( ( pending = watchService.poll() ) != null )
+					{
+						pollChanged( pending );
+					}
+					reload();
+				}
+			}
+		} catch ( InterruptedException ex )
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private boolean pollChanged( WatchKey key )
+	{
+		boolean changed = false;
+		for ( WatchEvent<?> event : key.pollEvents() )
+		{
+			if ( event.kind() == StandardWatchEventKinds.OVERFLOW
+					|| file.getFileName().equals( event.context() ) )
+			{
+				changed = true;
+			}
+		}
+		key.reset();
+		return changed;
+	}
+}
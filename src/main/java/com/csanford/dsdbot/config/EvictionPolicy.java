@@ -0,0 +1,19 @@
+package com.csanford.dsdbot.config;
+
+/**
+ * How the message history decides which message to forget once it is full.
+ *
+ * @author csanford
+ * #date Oct 19, 2026
+ */
+public enum EvictionPolicy
+{
+	/**
+	 * Forget the message that was saved first.
+	 */
+	FIFO,
+	/**
+	 * Forget the message that was looked up least recently.
+	 */
+	LRU
+}
@@ -0,0 +1,74 @@
+package com.csanford.dsdbot.config;
+
+/**
+ * A pairing of a Slack channel with the Discord channel it is relayed to.
+ *
+ * @author csanford
+ * #date Oct 19, 2026
+ */
+public final class Route
+{
+
+	private final String slackChannel;
+	private final String discordChannel;
+	private final String name;
+
+	/**
+	 * Create a route between two channels.
+	 *
+	 * @param slackChannel The name of the Slack channel.
+	 * @param discordChannel The name of the Discord text channel.
+	 */
+	public Route( String slackChannel, String discordChannel )
+	{
+		this.slackChannel = slackChannel;
+		this.discordChannel = discordChannel;
+		this.name = slackChannel + ":" + discordChannel;
+	}
+
+	/**
+	 * Parse a route in the form {slackChannel}:{discordChannel}.
+	 *
+	 * @param value The route as written in the configuration.
+	 * @return The route.
+	 */
+	static Route parse( String value )
+	{
+		String[] channels = value.trim().split( ":" );
+		if ( channels.length != 2 || channels[0].isEmpty() || channels[1].isEmpty() )
+		{
+			throw new IllegalArgumentException( "Invalid route, expected slack:discord but got " + value );
+		}
+		return new Route( channels[0].trim(), channels[1].trim() );
+	}
+
+	/**
+	 * @return The name of the Slack channel.
+	 */
+	public String getSlackChannel()
+	{
+		return slackChannel;
+	}
+
+	/**
+	 * @return The name of the Discord text channel.
+	 */
+	public String getDiscordChannel()
+	{
+		return discordChannel;
+	}
+
+	/**
+	 * @return The route as written in the configuration.
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	@Override
+	public String toString()
+	{
+		return name;
+	}
+}
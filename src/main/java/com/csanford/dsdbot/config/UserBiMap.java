@@ -0,0 +1,46 @@
+package com.csanford.dsdbot.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps Discord user IDs to Slack user IDs and back again.
+ *
+ * @author csanford
+ * #date Sep 24, 2018
+ */
+public class UserBiMap
+{
+
+	private final Map<String, String> dtosUsers;
+	private final Map<String, String> stodUsers;
+
+	UserBiMap()
+	{
+		dtosUsers = new HashMap<>();
+		stodUsers = new HashMap<>();
+	}
+
+	/**
+	 * Link a Discord user to a Slack user.
+	 *
+	 * @param discordId The Discord user ID.
+	 * @param slackId The Slack user ID.
+	 */
+	void put( String discordId, String slackId )
+	{
+		dtosUsers.put( discordId, slackId );
+		stodUsers.put( slackId, discordId );
+	}
+
+	public String get( String key )
+	{
+		return dtosUsers.getOrDefault( key, stodUsers.get( key ) );
+	}
+
+	public String getOrDefault( String key, String def )
+	{
+		String value = get( key );
+		return value != null ? value : def;
+	}
+}
@@ -1,8 +1,13 @@
 package com.csanford.dsdbot.connector;
 
-import com.csanford.dsdbot.constants.Constants;
 import com.csanford.dsdbot.MessageHistory;
-import com.csanford.dsdbot.constants.UserBiMap;
+import com.csanford.dsdbot.MessageHistory.SlackEntry;
+import com.csanford.dsdbot.config.BotConfig;
+import com.csanford.dsdbot.config.ConfigManager;
+import com.csanford.dsdbot.config.Route;
+import com.csanford.dsdbot.relay.Direction;
+import com.csanford.dsdbot.relay.RelayDispatcher;
+import com.csanford.dsdbot.relay.RelayLog;
 import com.ullink.slack.simpleslackapi.SlackChannel;
 import com.ullink.slack.simpleslackapi.SlackSession;
 import com.vdurmont.emoji.Emoji;
@@ -34,17 +39,24 @@ public class DiscordConnector extends ListenerAdapter
 
 	private final SlackSession slackSession;
 	private final MessageHistory messageHistory;
+	private final ConfigManager configManager;
+	private final RelayDispatcher relayDispatcher;
 
 	/**
 	 * Create the Discord to Slack connector.
 	 *
 	 * @param slackSession The Slack session we're talking to.
 	 * @param messageHistory A message history to keep track of sent messages.
+	 * @param configManager The source of the current configuration.
+	 * @param relayDispatcher Runs the calls to Slack off the JDA event thread.
 	 */
-	public DiscordConnector( SlackSession slackSession, MessageHistory messageHistory )
+	public DiscordConnector( SlackSession slackSession, MessageHistory messageHistory,
+			ConfigManager configManager, RelayDispatcher relayDispatcher )
 	{
 		this.slackSession = slackSession;
 		this.messageHistory = messageHistory;
+		this.configManager = configManager;
+		this.relayDispatcher = relayDispatcher;
 	}
 
 	/**
@@ -57,20 +69,35 @@ public class DiscordConnector extends ListenerAdapter
 	public void onMessageReceived( MessageReceivedEvent event )
 	{
 		// Discord Message Listener
+		long received = System.nanoTime();
 		Message discordMessage = event.getMessage();
 		User messageAuthor = event.getAuthor();
 		Member selfMember = event.getGuild().getSelfMember();
 		if ( discordMessage.isMentioned( selfMember, Message.MentionType.USER ) && !messageAuthor.isBot() )
 		{
-			LOG.debug( "Discord message recieved from " + messageAuthor.getName() );
+			if ( RelayLog.sampleDebug( LOG ) )
+			{
+				LOG.debug( "Discord message recieved from {}", messageAuthor.getName() );
+			}
 			// If the bot was mentioned by not itself, send a slack message
-			String slackMessage = convertDiscordMessage( messageAuthor,
+			BotConfig config = configManager.get();
+			Route route = config.routeForDiscordChannel( event.getChannel().getName() );
+			String slackMessage = convertDiscordMessage( config, messageAuthor,
 					discordMessage );
 
-			SlackChannel channel = slackSession.findChannelByName( Constants.SLACK_CHANNEL );
-			String timestamp
-					= slackSession.sendMessage( channel, slackMessage ).getReply().getTimestamp();
-			messageHistory.saveSlackMessage( event.getMessageIdLong(), timestamp );
+			relayDispatcher.submit( "post", route.getName(), Direction.DISCORD_TO_SLACK,
+					event.getMessageIdLong(), null, received, () ->
+			{
+				relayDispatcher.acquire();
+				SlackChannel channel = slackSession.findChannelByName( route.getSlackChannel() );
+				String timestamp
+						= slackSession.sendMessage( channel, slackMessage ).getReply().getTimestamp();
+				messageHistory.saveSlackMessage( event.getMessageIdLong(), timestamp, channel.getId(),
+						event.getChannel().getIdLong(), route.getName(),
+						MessageHistory.fingerprint( discordMessage.getContentRaw() ) );
+				RelayLog.relayed( "post", route.getName(), Direction.DISCORD_TO_SLACK,
+						event.getMessageIdLong(), timestamp, received );
+			} );
 		}
 	}
 
@@ -84,13 +111,22 @@ public class DiscordConnector extends ListenerAdapter
 	public void onMessageDelete( MessageDeleteEvent event )
 	{
 		// Message deleted from Discord
-		String timestamp = messageHistory.removeSlackMessage( event.getMessageIdLong() );
-		if ( timestamp != null )
+		long received = System.nanoTime();
+		// The lookup runs on the relay thread so a post still in the queue is saved first
+		relayDispatcher.submit( "delete", null, Direction.DISCORD_TO_SLACK,
+				event.getMessageIdLong(), null, received, () ->
 		{
-			LOG.debug( "Discord message deleted" );
-			SlackChannel channel = slackSession.findChannelByName( Constants.SLACK_CHANNEL );
-			slackSession.deleteMessage( timestamp, channel );
-		}
+			SlackEntry entry = messageHistory.removeSlackEntry( event.getMessageIdLong() );
+			if ( entry == null )
+			{
+				return;
+			}
+			relayDispatcher.acquire();
+			SlackChannel channel = slackSession.findChannelById( entry.getSlackChannel() );
+			slackSession.deleteMessage( entry.getTimestamp(), channel );
+			RelayLog.relayed( "delete", entry.getRoute(), Direction.DISCORD_TO_SLACK,
+					event.getMessageIdLong(), entry.getTimestamp(), received );
+		} );
 	}
 
 	/**
@@ -102,15 +138,25 @@ public class DiscordConnector extends ListenerAdapter
 	@Override
 	public void onMessageUpdate( MessageUpdateEvent event )
 	{
-		String timestamp = messageHistory.getSlackTimestamp( event.getMessageIdLong() );
-		if ( timestamp != null )
+		long received = System.nanoTime();
+		BotConfig config = configManager.get();
+		relayDispatcher.submit( "update", null, Direction.DISCORD_TO_SLACK,
+				event.getMessageIdLong(), null, received, () ->
 		{
-			User author = event.getAuthor();
-			Message discordMessage = event.getMessage();
-			String slackMessage = convertDiscordMessage( author, discordMessage );
-			SlackChannel channel = slackSession.findChannelByName( Constants.SLACK_CHANNEL );
-			slackSession.updateMessage( timestamp, channel, slackMessage );
-		}
+			SlackEntry entry = messageHistory.getSlackEntry( event.getMessageIdLong() );
+			if ( entry == null )
+			{
+				return;
+			}
+			String slackMessage = convertDiscordMessage( config, event.getAuthor(), event.getMessage() );
+			relayDispatcher.acquire();
+			SlackChannel channel = slackSession.findChannelById( entry.getSlackChannel() );
+			slackSession.updateMessage( entry.getTimestamp(), channel, slackMessage );
+			messageHistory.editSlackMessage( event.getMessageIdLong(),
+					MessageHistory.fingerprint( event.getMessage().getContentRaw() ) );
+			RelayLog.relayed( "update", entry.getRoute(), Direction.DISCORD_TO_SLACK,
+					event.getMessageIdLong(), entry.getTimestamp(), received );
+		} );
 	}
 
 	/**
@@ -122,14 +168,23 @@ public class DiscordConnector extends ListenerAdapter
 	@Override
 	public void onMessageReactionAdd( MessageReactionAddEvent event )
 	{
-		String timestamp = messageHistory.getSlackTimestamp( event.getMessageIdLong() );
-		if ( timestamp != null )
+		long received = System.nanoTime();
+		String emote = event.getReaction().getReactionEmote().getName();
+		relayDispatcher.submit( "reaction add", null, Direction.DISCORD_TO_SLACK,
+				event.getMessageIdLong(), null, received, () ->
 		{
-			SlackChannel channel = slackSession.findChannelByName( Constants.SLACK_CHANNEL );
-			String emote = event.getReaction().getReactionEmote().getName();
+			SlackEntry entry = messageHistory.getSlackEntry( event.getMessageIdLong() );
+			if ( entry == null )
+			{
+				return;
+			}
+			relayDispatcher.acquire();
+			SlackChannel channel = slackSession.findChannelById( entry.getSlackChannel() );
 			Emoji emoji = EmojiManager.getByUnicode( emote );
-			slackSession.addReactionToMessage( channel, timestamp, emoji.getAliases().get( 0 ) );
-		}
+			slackSession.addReactionToMessage( channel, entry.getTimestamp(), emoji.getAliases().get( 0 ) );
+			RelayLog.relayed( "reaction add", entry.getRoute(), Direction.DISCORD_TO_SLACK,
+					event.getMessageIdLong(), entry.getTimestamp(), received );
+		} );
 	}
 
 	/**
@@ -141,38 +196,47 @@ public class DiscordConnector extends ListenerAdapter
 	@Override
 	public void onMessageReactionRemove( MessageReactionRemoveEvent event )
 	{
-		String timestamp = messageHistory.getSlackTimestamp( event.getMessageIdLong() );
-		if ( timestamp != null )
+		long received = System.nanoTime();
+		String emote = event.getReaction().getReactionEmote().getName();
+		relayDispatcher.submit( "reaction remove", null, Direction.DISCORD_TO_SLACK,
+				event.getMessageIdLong(), null, received, () ->
 		{
-			SlackChannel channel = slackSession.findChannelByName( Constants.SLACK_CHANNEL );
-			String emote = event.getReaction().getReactionEmote().getName();
+			SlackEntry entry = messageHistory.getSlackEntry( event.getMessageIdLong() );
+			if ( entry == null )
+			{
+				return;
+			}
+			relayDispatcher.acquire();
+			SlackChannel channel = slackSession.findChannelById( entry.getSlackChannel() );
 			Emoji emoji = EmojiManager.getByUnicode( emote );
-			slackSession.removeReactionFromMessage( channel, timestamp, emoji.getAliases().get( 0 ) );
-		}
+			slackSession.removeReactionFromMessage( channel, entry.getTimestamp(), emoji.getAliases().get( 0 ) );
+			RelayLog.relayed( "reaction remove", entry.getRoute(), Direction.DISCORD_TO_SLACK,
+					event.getMessageIdLong(), entry.getTimestamp(), received );
+		} );
 	}
 
 	/**
 	 * Prepends the name of the sender to the message.
 	 *
+	 * @param config The configuration with the user mappings.
 	 * @param author Original author of the message.
 	 * @param message The message that was sent.
 	 * @return A strick formatted for Slack display in the style of
 	 * <b>{author}</b>: {content}
 	 */
-	private String convertDiscordMessage( User author, Message message )
+	String convertDiscordMessage( BotConfig config, User author, Message message )
 	{
 		StringBuilder slackMessage = new StringBuilder();
 		slackMessage.append( "*" ).append( author.getName() ).append( "*: " );
 
-		String[] messageParts = message.getContentRaw()
-				.split( String.format( Constants.WITH_DELIMITER, "<@!?(\\d){17,18}>" ) );
+		String[] messageParts = config.getDiscordMentionSplitter().split( message.getContentRaw() );
 		Arrays.stream( messageParts ).forEach( part ->
 		{
 			if ( part.startsWith( "<@" ) )
 			{
 				String discordId = part.replace( "!", "" ).replace( "<@", "" ).replace( ">", "" );
 				slackMessage.append( "<@" )
-						.append( UserBiMap.getOrDefault( discordId, part ) )
+						.append( config.getUsers().getOrDefault( discordId, part ) )
 						.append( ">" );
 			} else
 			{
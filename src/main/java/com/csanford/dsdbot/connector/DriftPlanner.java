@@ -0,0 +1,174 @@
+package com.csanford.dsdbot.connector;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Decides what a reconciliation pass should do with each relayed message,
+ * given one page of recent messages from each side of a route. It only looks
+ * at IDs and fingerprints so the rules can be checked without talking to
+ * Slack or Discord.
+ *
+ * A message is only judged if it was relayed between the two channels that
+ * were paged. Messages from other channels that fell back to the default
+ * route, and Slack thread replies, never show up in a channel page and
+ * would otherwise look deleted.
+ *
+ * @author csanford
+ * #date Oct 19, 2026
+ */
+final class DriftPlanner
+{
+
+	/**
+	 * What to do with a relayed message.
+	 */
+	enum Fix
+	{
+		/**
+		 * In sync, or it can't be judged from these pages.
+		 */
+		NONE,
+		/**
+		 * The original was deleted, delete the copy.
+		 */
+		DELETE_TARGET,
+		/**
+		 * The original was edited, update the copy.
+		 */
+		UPDATE_TARGET,
+		/**
+		 * The copy is gone, so there is nothing left to keep in sync.
+		 */
+		FORGET
+	}
+
+	private final String slackChannel;
+	private final long discordChannel;
+	private final Map<String, Long> slackPage;
+	private final Map<Long, Long> discordPage;
+	// The oldest message paged in on each side, or null and 0 if there is no
+	// older history and so the page holds the whole channel
+	private final BigDecimal oldestSlackTimestamp;
+	private final long oldestDiscordId;
+
+	/**
+	 * Create a planner for one route. The Slack page may leave out entries
+	 * that can't have been relayed, so its window is given separately.
+	 *
+	 * @param slackChannel ID of the Slack channel that was paged.
+	 * @param slackPage Fingerprints of the paged Slack messages by timestamp.
+	 * @param oldestSlackTimestamp The oldest timestamp in the Slack history
+	 * reply, including entries left out of the page.
+	 * @param slackHasMore True if Slack reported history older than the page.
+	 * @param discordChannel ID of the Discord channel that was paged.
+	 * @param discordPage Fingerprints of the paged Discord messages by ID.
+	 * @param discordHasMore True if there may be history older than the
+	 * Discord page.
+	 */
+	DriftPlanner( String slackChannel, Map<String, Long> slackPage, String oldestSlackTimestamp,
+			boolean slackHasMore, long discordChannel, Map<Long, Long> discordPage, boolean discordHasMore )
+	{
+		if ( slackHasMore && oldestSlackTimestamp == null )
+		{
+			throw new IllegalArgumentException( "A Slack page with more history needs its oldest timestamp" );
+		}
+		this.slackChannel = slackChannel;
+		this.slackPage = slackPage;
+		this.discordChannel = discordChannel;
+		this.discordPage = discordPage;
+		this.oldestSlackTimestamp = slackHasMore ? new BigDecimal( oldestSlackTimestamp ) : null;
+
+		long oldestId = 0;
+		if ( discordHasMore )
+		{
+			oldestId = Long.MAX_VALUE;
+			for ( long id : discordPage.keySet() )
+			{
+				oldestId = Math.min( oldestId, id );
+			}
+		}
+		this.oldestDiscordId = oldestId;
+	}
+
+	/**
+	 * Plan the fix for a message relayed from Slack to Discord.
+	 *
+	 * @param timestamp Timestamp of the Slack message.
+	 * @param sourceChannel ID of the Slack channel it was posted in.
+	 * @param threadTimestamp Timestamp of the Slack thread it was posted in,
+	 * or null if it wasn't posted in a thread.
+	 * @param targetChannel ID of the Discord channel it was relayed to.
+	 * @param targetId ID of the Discord copy.
+	 * @param fingerprint Fingerprint of the Slack content the copy was made from.
+	 * @return What to do with the Discord copy.
+	 */
+	Fix planSlackToDiscord( String timestamp, String sourceChannel, String threadTimestamp,
+			long targetChannel, long targetId, long fingerprint )
+	{
+		// A thread parent has its own timestamp as the thread timestamp
+		boolean reply = threadTimestamp != null && !threadTimestamp.equals( timestamp );
+		if ( !slackChannel.equals( sourceChannel ) || reply || targetChannel != discordChannel )
+		{
+			return Fix.NONE;
+		}
+		return plan( slackPage.get( timestamp ), isSlackPaged( timestamp ),
+				discordPage.containsKey( targetId ), targetId >= oldestDiscordId, fingerprint );
+	}
+
+	/**
+	 * Plan the fix for a message relayed from Discord to Slack.
+	 *
+	 * @param messageId ID of the Discord message.
+	 * @param sourceChannel ID of the Discord channel it was posted in.
+	 * @param targetChannel ID of the Slack channel it was relayed to.
+	 * @param targetTimestamp Timestamp of the Slack copy.
+	 * @param fingerprint Fingerprint of the Discord content the copy was made from.
+	 * @return What to do with the Slack copy.
+	 */
+	Fix planDiscordToSlack( long messageId, long sourceChannel, String targetChannel,
+			String targetTimestamp, long fingerprint )
+	{
+		if ( sourceChannel != discordChannel || !slackChannel.equals( targetChannel ) )
+		{
+			return Fix.NONE;
+		}
+		return plan( discordPage.get( messageId ), messageId >= oldestDiscordId,
+				slackPage.containsKey( targetTimestamp ), isSlackPaged( targetTimestamp ), fingerprint );
+	}
+
+	/**
+	 * @param source Fingerprint of the paged original, null if it wasn't paged.
+	 * @param sourceInWindow True if the original would have been paged if it still existed.
+	 * @param targetFound True if the copy was paged.
+	 * @param targetInWindow True if the copy would have been paged if it still existed.
+	 * @param fingerprint Fingerprint of the content the copy was made from.
+	 */
+	private static Fix plan( Long source, boolean sourceInWindow, boolean targetFound, boolean targetInWindow,
+			long fingerprint )
+	{
+		if ( source == null )
+		{
+			if ( !sourceInWindow )
+			{
+				return Fix.NONE;
+			}
+			if ( targetFound )
+			{
+				return Fix.DELETE_TARGET;
+			}
+			// Deleted on both sides, unless the copy is just too old to see
+			return targetInWindow ? Fix.FORGET : Fix.NONE;
+		}
+		if ( !targetFound )
+		{
+			return targetInWindow ? Fix.FORGET : Fix.NONE;
+		}
+		return source != fingerprint ? Fix.UPDATE_TARGET : Fix.NONE;
+	}
+
+	private boolean isSlackPaged( String timestamp )
+	{
+		return oldestSlackTimestamp == null || new BigDecimal( timestamp ).compareTo( oldestSlackTimestamp ) >= 0;
+	}
+}
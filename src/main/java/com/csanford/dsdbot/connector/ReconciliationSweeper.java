@@ -0,0 +1,569 @@
+package com.csanford.dsdbot.connector;
+
+import com.csanford.dsdbot.MessageHistory;
+import com.csanford.dsdbot.MessageHistory.DiscordEntry;
+import com.csanford.dsdbot.MessageHistory.SlackEntry;
+import com.csanford.dsdbot.config.BotConfig;
+import com.csanford.dsdbot.config.ConfigManager;
+import com.csanford.dsdbot.config.Route;
+import com.csanford.dsdbot.relay.Direction;
+import com.csanford.dsdbot.relay.RateLimiter;
+import com.csanford.dsdbot.relay.RelayDispatcher;
+import com.csanford.dsdbot.relay.RelayLog;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.ullink.slack.simpleslackapi.SlackChannel;
+import com.ullink.slack.simpleslackapi.SlackSession;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import net.dv8tion.jda.core.JDA;
+import net.dv8tion.jda.core.Permission;
+import net.dv8tion.jda.core.entities.Message;
+import net.dv8tion.jda.core.entities.TextChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically compares the recent messages on both sides of every route with
+ * the message history and repairs edits and deletes that were missed, for
+ * example while the Slack connection was down. Fixes are sent in bulk where
+ * the APIs allow it, under their own rate limit, and only while the relay
+ * dispatcher has no live work.
+ *
+ * @author csanford
+ * #date Oct 19, 2026
+ */
+public class ReconciliationSweeper
+{
+
+	private static final Logger LOG = LoggerFactory.getLogger( ReconciliationSweeper.class );
+	// Discord refuses to bulk delete messages older than two weeks, keep a margin
+	private static final Duration BULK_DELETE_MAX_AGE = Duration.ofDays( 14 ).minusHours( 1 );
+	private static final int BULK_DELETE_MAX = 100;
+	private static final long IDLE_POLL_MILLIS = 100;
+
+	private final JDA jda;
+	private final SlackSession slackSession;
+	private final SlackConnector slackConnector;
+	private final DiscordConnector discordConnector;
+	private final MessageHistory messageHistory;
+	private final ConfigManager configManager;
+	private final RelayDispatcher relayDispatcher;
+	private final RateLimiter rateLimiter;
+	private final ScheduledExecutorService scheduler;
+	private ScheduledFuture<?> sweep;
+	private int intervalSeconds;
+	private boolean started;
+
+	/**
+	 * Create the reconciliation sweeper. Nothing runs until it is started.
+	 *
+	 * @param jda The Discord instance we'll be talking to.
+	 * @param slackConnector The Slack connector, for its session and edits.
+	 * @param discordConnector The Discord connector, for message conversion.
+	 * @param messageHistory The message history to reconcile.
+	 * @param configManager The source of the current configuration.
+	 * @param relayDispatcher The live relay work, which always goes first.
+	 */
+	public ReconciliationSweeper( JDA jda, SlackConnector slackConnector, DiscordConnector discordConnector,
+			MessageHistory messageHistory, ConfigManager configManager, RelayDispatcher relayDispatcher )
+	{
+		this.jda = jda;
+		this.slackSession = slackConnector.getSlackSession();
+		this.slackConnector = slackConnector;
+		this.discordConnector = discordConnector;
+		this.messageHistory = messageHistory;
+		this.configManager = configManager;
+		this.relayDispatcher = relayDispatcher;
+		this.rateLimiter = new RateLimiter( configManager.get().getReconcileRatePerSecond() );
+		this.scheduler = Executors.newSingleThreadScheduledExecutor( runnable ->
+		{
+			Thread thread = new Thread( runnable, "reconciliation-sweeper" );
+			thread.setDaemon( true );
+			return thread;
+		} );
+	}
+
+	/**
+	 * Start running reconciliation passes.
+	 */
+	public synchronized void start()
+	{
+		started = true;
+		schedule( configManager.get().getReconcileIntervalSeconds() );
+	}
+
+	/**
+	 * Apply a new rate limit and interval. An interval of 0 stops the passes
+	 * until the interval is raised again.
+	 *
+	 * @param config The new configuration.
+	 */
+	public synchronized void applyConfig( BotConfig config )
+	{
+		rateLimiter.setRate( config.getReconcileRatePerSecond() );
+		// The sweep is null while the interval is 0, so it can't tell us if we started
+		if ( started && config.getReconcileIntervalSeconds() != intervalSeconds )
+		{
+			schedule( config.getReconcileIntervalSeconds() );
+		}
+	}
+
+	private void schedule( int seconds )
+	{
+		if ( sweep != null )
+		{
+			sweep.cancel( false );
+		}
+		intervalSeconds = seconds;
+		sweep = seconds > 0
+				? scheduler.scheduleWithFixedDelay( this::sweep, seconds, seconds, TimeUnit.SECONDS )
+				: null;
+	}
+
+	/**
+	 * Run one reconciliation pass over every route.
+	 */
+	private void sweep()
+	{
+		BotConfig config = configManager.get();
+		for ( Route route : config.getRoutes() )
+		{
+			try
+			{
+				reconcile( config, route );
+			} catch ( InterruptedException ex )
+			{
+				Thread.currentThread().interrupt();
+				return;
+			} catch ( RuntimeException ex )
+			{
+				// Never let an exception escape, it would cancel the schedule
+				LOG.error( "Reconciliation of {} failed", route, ex );
+			}
+		}
+	}
+
+	/**
+	 * Compare the recent messages on both sides of a route with the history
+	 * and fix whatever has drifted.
+	 *
+	 * @param config The configuration for this pass.
+	 * @param route The route to reconcile.
+	 * @throws InterruptedException Interrupted while waiting for the budget.
+	 */
+	private void reconcile( BotConfig config, Route route ) throws InterruptedException
+	{
+		List<TextChannel> discordChannels = jda.getTextChannelsByName( route.getDiscordChannel(), true );
+		SlackChannel slackChannel = slackSession.findChannelByName( route.getSlackChannel() );
+		if ( discordChannels.isEmpty() || slackChannel == null )
+		{
+			LOG.warn( "Skipping reconciliation of {}, channel not found", route );
+			return;
+		}
+		TextChannel discordChannel = discordChannels.get( 0 );
+		int pageSize = config.getReconcilePageSize();
+
+		// Snapshot the history before paging so anything relayed while we page
+		// is left alone instead of looking deleted
+		Map<String, DiscordEntry> stodEntries = messageHistory.getDiscordEntries();
+		Map<Long, SlackEntry> dtosEntries = messageHistory.getSlackEntries();
+
+		awaitBudget();
+		List<Message> discordPage = discordChannel.getHistory().retrievePast( pageSize ).complete();
+		awaitBudget();
+		SlackPage slackPage = fetchSlackHistory( slackChannel, pageSize );
+		if ( discordPage.isEmpty() || slackPage.oldestTimestamp == null )
+		{
+			// An empty page is more likely a failed fetch than an empty channel,
+			// and treating it as one would delete everything on the other side
+			LOG.debug( "Skipping reconciliation of {}, no history returned", route );
+			return;
+		}
+
+		Map<Long, Message> discordById = new HashMap<>();
+		Map<Long, Long> discordFingerprints = new HashMap<>();
+		for ( Message message : discordPage )
+		{
+			discordById.put( message.getIdLong(), message );
+			discordFingerprints.put( message.getIdLong(), MessageHistory.fingerprint( message.getContentRaw() ) );
+		}
+		Map<String, Long> slackFingerprints = new HashMap<>();
+		slackPage.contentByTimestamp.forEach( ( timestamp, content )
+				-> slackFingerprints.put( timestamp, MessageHistory.fingerprint( content ) ) );
+		// Discord returns every message in the channel, so a short page holds all of it
+		DriftPlanner planner = new DriftPlanner( slackChannel.getId(), slackFingerprints,
+				slackPage.oldestTimestamp, slackPage.hasMore, discordChannel.getIdLong(), discordFingerprints,
+				discordPage.size() >= pageSize );
+
+		// Slack to Discord: deleted or edited on Slack
+		Map<String, Message> discordDeletes = new LinkedHashMap<>();
+		Map<String, Message> discordEdits = new LinkedHashMap<>();
+		for ( Map.Entry<String, DiscordEntry> mapping : stodEntries.entrySet() )
+		{
+			String timestamp = mapping.getKey();
+			DiscordEntry entry = mapping.getValue();
+			long targetId = entry.getMessage().getIdLong();
+			switch ( planner.planSlackToDiscord( timestamp, entry.getSlackChannel(), entry.getThreadTimestamp(),
+					entry.getMessage().getChannel().getIdLong(), targetId, entry.getFingerprint() ) )
+			{
+				case DELETE_TARGET:
+					discordDeletes.put( timestamp, discordById.get( targetId ) );
+					break;
+				case UPDATE_TARGET:
+					discordEdits.put( timestamp, discordById.get( targetId ) );
+					break;
+				case FORGET:
+					messageHistory.removeDiscordEntry( timestamp );
+					break;
+				default:
+					break;
+			}
+		}
+
+		// Discord to Slack: deleted or edited on Discord
+		Map<Long, String> slackDeletes = new LinkedHashMap<>();
+		Map<Long, Message> slackUpdates = new LinkedHashMap<>();
+		for ( Map.Entry<Long, SlackEntry> mapping : dtosEntries.entrySet() )
+		{
+			Long messageId = mapping.getKey();
+			SlackEntry entry = mapping.getValue();
+			switch ( planner.planDiscordToSlack( messageId, entry.getDiscordChannel(), entry.getSlackChannel(),
+					entry.getTimestamp(), entry.getFingerprint() ) )
+			{
+				case DELETE_TARGET:
+					slackDeletes.put( messageId, entry.getTimestamp() );
+					break;
+				case UPDATE_TARGET:
+					slackUpdates.put( messageId, discordById.get( messageId ) );
+					break;
+				case FORGET:
+					messageHistory.removeSlackEntry( messageId );
+					break;
+				default:
+					break;
+			}
+		}
+
+		int fixes = discordDeletes.size() + discordEdits.size() + slackDeletes.size() + slackUpdates.size();
+		if ( fixes == 0 )
+		{
+			return;
+		}
+		LOG.info( "Reconciling {}: {} Discord deletes, {} Discord edits, {} Slack deletes, {} Slack updates",
+				route, discordDeletes.size(), discordEdits.size(), slackDeletes.size(), slackUpdates.size() );
+
+		// Mappings are only forgotten once the delete went through, so a failed
+		// one is tried again on the next pass. Each fix fails on its own.
+		deleteDiscordMessages( route, discordChannel, discordDeletes );
+		for ( Map.Entry<String, Message> edit : discordEdits.entrySet() )
+		{
+			awaitBudget();
+			// A live edit since the pages were fetched is newer than the page
+			DiscordEntry current = messageHistory.getDiscordEntry( edit.getKey() );
+			if ( current == null || current.getFingerprint() != stodEntries.get( edit.getKey() ).getFingerprint() )
+			{
+				continue;
+			}
+			long started = System.nanoTime();
+			try
+			{
+				String content = slackPage.contentByTimestamp.get( edit.getKey() );
+				slackConnector.editDiscordMessage( config, edit.getKey(), edit.getValue(), content );
+				RelayLog.relayed( "reconcile update", route.getName(), Direction.SLACK_TO_DISCORD,
+						edit.getKey(), edit.getValue().getIdLong(), started );
+			} catch ( RuntimeException ex )
+			{
+				failed( "reconcile update", route, Direction.SLACK_TO_DISCORD,
+						edit.getKey(), edit.getValue().getIdLong(), started, ex );
+			}
+		}
+		// Slack has no bulk endpoints, so these go out back to back under the budget
+		for ( Map.Entry<Long, String> delete : slackDeletes.entrySet() )
+		{
+			awaitBudget();
+			// Only fix it if a live event didn't get there first
+			if ( messageHistory.getSlackEntry( delete.getKey() ) == null )
+			{
+				continue;
+			}
+			long started = System.nanoTime();
+			try
+			{
+				slackSession.deleteMessage( delete.getValue(), slackChannel );
+				messageHistory.removeSlackEntry( delete.getKey() );
+				RelayLog.relayed( "reconcile delete", route.getName(), Direction.DISCORD_TO_SLACK,
+						delete.getKey(), delete.getValue(), started );
+			} catch ( RuntimeException ex )
+			{
+				failed( "reconcile delete", route, Direction.DISCORD_TO_SLACK,
+						delete.getKey(), delete.getValue(), started, ex );
+			}
+		}
+		for ( Map.Entry<Long, Message> update : slackUpdates.entrySet() )
+		{
+			awaitBudget();
+			SlackEntry current = messageHistory.getSlackEntry( update.getKey() );
+			if ( current == null || current.getFingerprint() != dtosEntries.get( update.getKey() ).getFingerprint() )
+			{
+				continue;
+			}
+			long started = System.nanoTime();
+			String timestamp = dtosEntries.get( update.getKey() ).getTimestamp();
+			try
+			{
+				Message source = update.getValue();
+				slackSession.updateMessage( timestamp, slackChannel,
+						discordConnector.convertDiscordMessage( config, source.getAuthor(), source ) );
+				messageHistory.editSlackMessage( update.getKey(),
+						MessageHistory.fingerprint( source.getContentRaw() ) );
+				RelayLog.relayed( "reconcile update", route.getName(), Direction.DISCORD_TO_SLACK,
+						update.getKey(), timestamp, started );
+			} catch ( RuntimeException ex )
+			{
+				failed( "reconcile update", route, Direction.DISCORD_TO_SLACK,
+						update.getKey(), timestamp, started, ex );
+			}
+		}
+	}
+
+	/**
+	 * Delete Discord messages, in bulk where Discord allows it. Bulk deletes
+	 * need the Manage Messages permission, without it every message is
+	 * deleted on its own. A bulk delete costs one call of the budget.
+	 *
+	 * @param route The route being reconciled.
+	 * @param channel The Discord channel the messages are in.
+	 * @param messages The messages keyed by the Slack timestamp they came from.
+	 * @throws InterruptedException Interrupted while waiting for the budget.
+	 */
+	private void deleteDiscordMessages( Route route, TextChannel channel, Map<String, Message> messages )
+			throws InterruptedException
+	{
+		boolean canBulkDelete = channel.getGuild().getSelfMember()
+				.hasPermission( channel, Permission.MESSAGE_MANAGE );
+		if ( !canBulkDelete && messages.size() > 1 )
+		{
+			LOG.warn( "Missing {} to bulk delete in {}, deleting one at a time", Permission.MESSAGE_MANAGE, route );
+		}
+		OffsetDateTime bulkCutoff = OffsetDateTime.now().minus( BULK_DELETE_MAX_AGE );
+		List<Map.Entry<String, Message>> bulk = new ArrayList<>();
+		for ( Map.Entry<String, Message> delete : messages.entrySet() )
+		{
+			if ( canBulkDelete && delete.getValue().getCreationTime().isAfter( bulkCutoff ) )
+			{
+				bulk.add( delete );
+			} else
+			{
+				deleteDiscordMessage( route, delete );
+			}
+		}
+
+		for ( int i = 0; i < bulk.size(); i += BULK_DELETE_MAX )
+		{
+			List<Map.Entry<String, Message>> chunk = bulk.subList( i, Math.min( bulk.size(), i + BULK_DELETE_MAX ) );
+			List<Map.Entry<String, Message>> pending = pendingDiscordDeletes( chunk );
+			if ( pending.size() < 2 )
+			{
+				for ( Map.Entry<String, Message> delete : pending )
+				{
+					deleteDiscordMessage( route, delete );
+				}
+				continue;
+			}
+
+			awaitBudget();
+			// Live events may have got to some while we waited, the call is
+			// already paid for so send what is left as it is
+			pending = pendingDiscordDeletes( pending );
+			if ( pending.size() < 2 )
+			{
+				for ( Map.Entry<String, Message> delete : pending )
+				{
+					sendDiscordDelete( route, delete );
+				}
+				continue;
+			}
+			List<String> ids = new ArrayList<>( pending.size() );
+			pending.forEach( delete -> ids.add( delete.getValue().getId() ) );
+			long started = System.nanoTime();
+			try
+			{
+				channel.deleteMessagesByIds( ids ).complete();
+			} catch ( RuntimeException ex )
+			{
+				for ( Map.Entry<String, Message> delete : pending )
+				{
+					failed( "reconcile delete", route, Direction.SLACK_TO_DISCORD,
+							delete.getKey(), delete.getValue().getIdLong(), started, ex );
+				}
+				continue;
+			}
+			for ( Map.Entry<String, Message> delete : pending )
+			{
+				messageHistory.removeDiscordEntry( delete.getKey() );
+				RelayLog.relayed( "reconcile delete", route.getName(), Direction.SLACK_TO_DISCORD,
+						delete.getKey(), delete.getValue().getIdLong(), started );
+			}
+		}
+	}
+
+	/**
+	 * Filter out the deletes a live event already took care of.
+	 *
+	 * @param deletes The messages keyed by the Slack timestamp they came from.
+	 * @return The deletes that are still in the history.
+	 */
+	private List<Map.Entry<String, Message>> pendingDiscordDeletes( List<Map.Entry<String, Message>> deletes )
+	{
+		List<Map.Entry<String, Message>> pending = new ArrayList<>( deletes.size() );
+		for ( Map.Entry<String, Message> delete : deletes )
+		{
+			if ( messageHistory.getDiscordEntry( delete.getKey() ) != null )
+			{
+				pending.add( delete );
+			}
+		}
+		return pending;
+	}
+
+	/**
+	 * Delete a single Discord message. The bot can always delete its own
+	 * messages, so this needs no extra permissions.
+	 *
+	 * @param route The route being reconciled.
+	 * @param delete The message keyed by the Slack timestamp it came from.
+	 * @throws InterruptedException Interrupted while waiting for the budget.
+	 */
+	private void deleteDiscordMessage( Route route, Map.Entry<String, Message> delete ) throws InterruptedException
+	{
+		awaitBudget();
+		sendDiscordDelete( route, delete );
+	}
+
+	/**
+	 * Delete a single Discord message without waiting for the budget, for
+	 * when the call has already been paid for.
+	 *
+	 * @param route The route being reconciled.
+	 * @param delete The message keyed by the Slack timestamp it came from.
+	 */
+	private void sendDiscordDelete( Route route, Map.Entry<String, Message> delete )
+	{
+		// Only fix it if a live event didn't get there first
+		if ( messageHistory.getDiscordEntry( delete.getKey() ) == null )
+		{
+			return;
+		}
+		long started = System.nanoTime();
+		try
+		{
+			delete.getValue().delete().complete();
+			messageHistory.removeDiscordEntry( delete.getKey() );
+			RelayLog.relayed( "reconcile delete", route.getName(), Direction.SLACK_TO_DISCORD,
+					delete.getKey(), delete.getValue().getIdLong(), started );
+		} catch ( RuntimeException ex )
+		{
+			failed( "reconcile delete", route, Direction.SLACK_TO_DISCORD,
+					delete.getKey(), delete.getValue().getIdLong(), started, ex );
+		}
+	}
+
+	/**
+	 * Log a fix that failed. The mapping is kept so the next pass tries again.
+	 *
+	 * @param action What was being fixed, e.g. reconcile delete.
+	 * @param route The route being reconciled.
+	 * @param direction Which way the original message went.
+	 * @param sourceId The ID of the original message.
+	 * @param targetId The ID of the copy.
+	 * @param started System.nanoTime() when the fix was started.
+	 * @param ex What went wrong.
+	 */
+	private static void failed( String action, Route route, Direction direction, Object sourceId, Object targetId,
+			long started, RuntimeException ex )
+	{
+		LOG.error( "Reconciliation failed: {} {} {}", direction, action, sourceId, ex );
+		RelayLog.failed( action, route.getName(), direction, sourceId, targetId, started, ex );
+	}
+
+	/**
+	 * Fetch the most recent messages in a Slack channel. This reads the raw
+	 * history reply because the history module drops entries with a subtype,
+	 * such as joins and file shares, and doesn't say whether there is more
+	 * history, so a short page from it can't be trusted to hold the channel.
+	 *
+	 * @param channel The Slack channel.
+	 * @param count The number of messages to fetch.
+	 * @return The page of messages.
+	 */
+	private SlackPage fetchSlackHistory( SlackChannel channel, int count )
+	{
+		Map<String, String> params = new HashMap<>();
+		params.put( "channel", channel.getId() );
+		params.put( "count", String.valueOf( count ) );
+		JsonObject answer = slackSession.postGenericSlackCommand( params, "channels.history" )
+				.getReply().getPlainAnswer();
+		if ( !answer.has( "ok" ) || !answer.get( "ok" ).getAsBoolean() )
+		{
+			throw new IllegalStateException( "Could not fetch the history of " + channel.getName() + ": "
+					+ answer.get( "error" ) );
+		}
+
+		SlackPage page = new SlackPage();
+		page.hasMore = answer.has( "has_more" ) && answer.get( "has_more" ).getAsBoolean();
+		BigDecimal oldest = null;
+		for ( JsonElement element : answer.getAsJsonArray( "messages" ) )
+		{
+			JsonObject message = element.getAsJsonObject();
+			String timestamp = message.get( "ts" ).getAsString();
+			String text = message.has( "text" ) ? message.get( "text" ).getAsString() : "";
+			page.contentByTimestamp.put( timestamp, text );
+			BigDecimal value = new BigDecimal( timestamp );
+			if ( oldest == null || value.compareTo( oldest ) < 0 )
+			{
+				oldest = value;
+				page.oldestTimestamp = timestamp;
+			}
+		}
+		return page;
+	}
+
+	/**
+	 * Wait for the reconciliation rate budget, then for the relay dispatcher
+	 * to have no live work.
+	 *
+	 * @throws InterruptedException Interrupted while waiting.
+	 */
+	private void awaitBudget() throws InterruptedException
+	{
+		rateLimiter.acquire();
+		while ( !relayDispatcher.isIdle() )
+		{
+			Thread.sleep( IDLE_POLL_MILLIS );
+		}
+	}
+
+	/**
+	 * A page of Slack channel history.
+	 */
+	private static final class SlackPage
+	{
+		// Message content keyed by timestamp
+		private final Map<String, String> contentByTimestamp = new HashMap<>();
+		// The oldest timestamp in the page, null if it was empty
+		private String oldestTimestamp;
+		// Whether the channel has history older than the page
+		private boolean hasMore;
+	}
+}
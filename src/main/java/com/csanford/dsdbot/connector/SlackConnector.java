@@ -1,9 +1,14 @@
 package com.csanford.dsdbot.connector;
 
 import com.csanford.dsdbot.MessageHistory;
-import com.csanford.dsdbot.constants.Constants;
-import com.csanford.dsdbot.constants.SecureConstants;
-import com.csanford.dsdbot.constants.UserBiMap;
+import com.csanford.dsdbot.MessageHistory.DiscordEntry;
+import com.csanford.dsdbot.config.BotConfig;
+import com.csanford.dsdbot.config.ConfigManager;
+import com.csanford.dsdbot.config.Route;
+import com.csanford.dsdbot.relay.Direction;
+import com.csanford.dsdbot.relay.RelayDispatcher;
+import com.csanford.dsdbot.relay.RelayLog;
+import com.ullink.slack.simpleslackapi.SlackChannel;
 import com.ullink.slack.simpleslackapi.SlackSession;
 import com.ullink.slack.simpleslackapi.SlackUser;
 import com.ullink.slack.simpleslackapi.impl.SlackSessionFactory;
@@ -39,19 +44,27 @@ public class SlackConnector
 	private final SlackSession slackSession;
 	private final JDA jda;
 	private final MessageHistory messageHistory;
+	private final ConfigManager configManager;
+	private final RelayDispatcher relayDispatcher;
 
 	/**
 	 * Create the Slack to Discord connector.
 	 *
 	 * @param jda The Discord instance we'll be talking to.
 	 * @param messageHistory A message history to keep track of messages sent.
+	 * @param configManager The source of the current configuration.
+	 * @param relayDispatcher Runs the calls to Discord off the Slack listener thread.
 	 */
-	public SlackConnector( JDA jda, MessageHistory messageHistory )
+	public SlackConnector( JDA jda, MessageHistory messageHistory,
+			ConfigManager configManager, RelayDispatcher relayDispatcher )
 	{
 		LOG.info( "Creating Slack session" );
-		this.slackSession = SlackSessionFactory.getSlackSessionBuilder( SecureConstants.SLACK_TOKEN ).build();;
+		this.slackSession = SlackSessionFactory
+				.getSlackSessionBuilder( configManager.get().getSlackToken() ).build();
 		this.jda = jda;
 		this.messageHistory = messageHistory;
+		this.configManager = configManager;
+		this.relayDispatcher = relayDispatcher;
 	}
 
 	/**
@@ -98,6 +111,7 @@ public class SlackConnector
 		SlackMessagePostedListener slackMessagePostedListener = ( event, session ) ->
 		{
 			// Slack Message Listener
+			long received = System.nanoTime();
 			String slackMessage = event.getMessageContent();
 			String selfId = session.sessionPersona().getId();
 			SlackUser sender = event.getSender();
@@ -105,13 +119,27 @@ public class SlackConnector
 			if ( !session.sessionPersona().getId().equals( sender.getId() )
 					&& slackMessage.contains( "@" + selfId ) )
 			{
-				LOG.debug( "Slack message posted from " + sender.getUserName() );
+				if ( RelayLog.sampleDebug( LOG ) )
+				{
+					LOG.debug( "Slack message posted from {}", sender.getUserName() );
+				}
 				// If the bot didn't send the message and was mentioned, send a discord message
-				Message discordMessage = convertSlackMessage( slackMessage, sender );
-				// Send the discord message
-				jda.getTextChannelsByName( Constants.DISCORD_CHANNEL, true ).get( 0 )
-						.sendMessage( discordMessage )
-						.queue( message -> messageHistory.saveDiscordMessage( timestamp, message ) );
+				BotConfig config = configManager.get();
+				Route route = config.routeForSlackChannel( event.getChannel().getName() );
+				relayDispatcher.submit( "post", route.getName(), Direction.SLACK_TO_DISCORD,
+					timestamp, null, received, () ->
+				{
+					Message discordMessage = convertSlackMessage( config, slackMessage, sender );
+					// Send the discord message
+					relayDispatcher.acquire();
+					Message message = jda.getTextChannelsByName( route.getDiscordChannel(), true ).get( 0 )
+							.sendMessage( discordMessage ).complete();
+					messageHistory.saveDiscordMessage( timestamp, message, event.getChannel().getId(),
+							event.getThreadTimestamp(), route.getName(),
+							MessageHistory.fingerprint( slackMessage ) );
+					RelayLog.relayed( "post", route.getName(), Direction.SLACK_TO_DISCORD,
+							timestamp, message.getIdLong(), received );
+				} );
 			}
 		};
 
@@ -127,16 +155,23 @@ public class SlackConnector
 	{
 		SlackMessageUpdatedListener slackMessageUpdatedListener = ( event, session ) ->
 		{
-			Message message = messageHistory.getDiscordMessage( event.getMessageTimestamp() );
-			if ( message != null )
+			long received = System.nanoTime();
+			BotConfig config = configManager.get();
+			// The lookup runs on the relay thread so a post still in the queue is saved first
+			relayDispatcher.submit( "update", null, Direction.SLACK_TO_DISCORD,
+				event.getMessageTimestamp(), null, received, () ->
 			{
-				String discordMsg = message.getContentDisplay();
-				StringBuilder slackMessage = new StringBuilder();
-				slackMessage.append( discordMsg.subSequence( 0, discordMsg.indexOf( ' ' ) + 1 ) );
-				slackMessage.append( event.getNewMessage() );
-
-				message.editMessage( convertSlackMessage( slackMessage.toString(), null ) ).queue();
-			}
+				DiscordEntry entry = findEntry( event.getMessageTimestamp(), event.getChannel() );
+				if ( entry == null )
+				{
+					return;
+				}
+				Message message = entry.getMessage();
+				relayDispatcher.acquire();
+				editDiscordMessage( config, event.getMessageTimestamp(), message, event.getNewMessage() );
+				RelayLog.relayed( "update", entry.getRoute(), Direction.SLACK_TO_DISCORD,
+						event.getMessageTimestamp(), message.getIdLong(), received );
+			} );
 		};
 
 		slackSession.addMessageUpdatedListener( slackMessageUpdatedListener );
@@ -152,12 +187,23 @@ public class SlackConnector
 		SlackMessageDeletedListener slackMessageDeletedListener = ( event, session ) ->
 		{
 			// Message deleted on slack
-			Message discordMsg = messageHistory.removeDiscordMessage( event.getMessageTimestamp() );
-			if ( discordMsg != null )
+			long received = System.nanoTime();
+			relayDispatcher.submit( "delete", null, Direction.SLACK_TO_DISCORD,
+				event.getMessageTimestamp(), null, received, () ->
 			{
-				LOG.debug( "Slack message deleted" );
+				DiscordEntry entry = findEntry( event.getMessageTimestamp(), event.getChannel() ) != null
+						? messageHistory.removeDiscordEntry( event.getMessageTimestamp() )
+						: null;
+				if ( entry == null )
+				{
+					return;
+				}
+				Message discordMsg = entry.getMessage();
+				relayDispatcher.acquire();
 				discordMsg.delete().complete();
-			}
+				RelayLog.relayed( "delete", entry.getRoute(), Direction.SLACK_TO_DISCORD,
+						event.getMessageTimestamp(), discordMsg.getIdLong(), received );
+			} );
 		};
 
 		slackSession.addMessageDeletedListener( slackMessageDeletedListener );
@@ -172,13 +218,24 @@ public class SlackConnector
 	{
 		ReactionAddedListener slackReactionAddedListener = ( event, session ) ->
 		{
+			long received = System.nanoTime();
 			final String timestamp = event.getMessageID();
-			Message message = messageHistory.getDiscordMessage( timestamp );
-			if ( message != null )
+			relayDispatcher.submit( "reaction add", null, Direction.SLACK_TO_DISCORD,
+				timestamp, null, received, () ->
 			{
+				DiscordEntry entry = findEntry( timestamp, event.getChannel() );
+				if ( entry == null )
+				{
+					return;
+				}
+				Message message = entry.getMessage();
 				Emoji emoji = EmojiManager.getForAlias( event.getEmojiName() );
-				message.addReaction( emoji.getUnicode() ).queue( o -> updateDiscordMessage( timestamp, message ) );
-			}
+				relayDispatcher.acquire();
+				message.addReaction( emoji.getUnicode() ).complete();
+				updateDiscordMessage( timestamp, message );
+				RelayLog.relayed( "reaction add", entry.getRoute(), Direction.SLACK_TO_DISCORD,
+						timestamp, message.getIdLong(), received );
+			} );
 		};
 
 		slackSession.addReactionAddedListener( slackReactionAddedListener );
@@ -192,23 +249,30 @@ public class SlackConnector
 	{
 		ReactionRemovedListener slackReactionRemovedListener = ( event, session ) ->
 		{
+			long received = System.nanoTime();
 			final String timestamp = event.getMessageID();
-			Message message = messageHistory.getDiscordMessage( timestamp );
-			if ( message != null )
+			relayDispatcher.submit( "reaction remove", null, Direction.SLACK_TO_DISCORD,
+				timestamp, null, received, () ->
 			{
+				DiscordEntry entry = findEntry( timestamp, event.getChannel() );
+				if ( entry == null )
+				{
+					return;
+				}
+				Message message = entry.getMessage();
 				// Find the first instance of the removed emote on the message
+				String slackEmoji = EmojiManager.getForAlias( event.getEmojiName() ).getUnicode();
 				MessageReaction msgReaction = message.getReactions().stream()
-						.filter( reaction ->
-						{
-							String reactionEmoji = reaction.getReactionEmote().getName();
-							String slackEmoji = EmojiManager.getForAlias( event.getEmojiName() ).getUnicode();
-							return reactionEmoji.equalsIgnoreCase( slackEmoji );
-						} )
+						.filter( reaction -> reaction.getReactionEmote().getName().equalsIgnoreCase( slackEmoji ) )
 						.findFirst()
 						.orElseThrow( () -> new IllegalArgumentException() );
 				// Remove the reaction and update the message history
-				msgReaction.removeReaction().queue( o -> updateDiscordMessage( timestamp, message ) );
-			}
+				relayDispatcher.acquire();
+				msgReaction.removeReaction().complete();
+				updateDiscordMessage( timestamp, message );
+				RelayLog.relayed( "reaction remove", entry.getRoute(), Direction.SLACK_TO_DISCORD,
+						timestamp, message.getIdLong(), received );
+			} );
 		};
 
 		slackSession.addReactionRemovedListener( slackReactionRemovedListener );
@@ -231,6 +295,20 @@ public class SlackConnector
 		slackSession.addSlackDisconnectedListener( slackDisconnectedListener );
 	}
 
+	/**
+	 * Finds the history entry for a Slack message. Slack timestamps are only
+	 * unique within a channel, so the entry must have come from the same one.
+	 *
+	 * @param timestamp The Slack message timestamp.
+	 * @param channel The Slack channel the message is in.
+	 * @return The history entry or null if the message wasn't relayed.
+	 */
+	private DiscordEntry findEntry( String timestamp, SlackChannel channel )
+	{
+		DiscordEntry entry = messageHistory.getDiscordEntry( timestamp );
+		return entry != null && entry.getSlackChannel().equals( channel.getId() ) ? entry : null;
+	}
+
 	/**
 	 * Updates the message history object with a new message.
 	 * @param timestamp Slack message timestamp.
@@ -239,18 +317,40 @@ public class SlackConnector
 	private void updateDiscordMessage( String timestamp, Message message )
 	{
 		final Long messageID = message.getIdLong();
-		messageHistory.saveDiscordMessage( timestamp,
+		messageHistory.refreshDiscordMessage( timestamp,
 				message.getChannel().getMessageById( messageID ).complete() );
 	}
 
+	/**
+	 * Replaces the content of a relayed Discord message with new Slack
+	 * content, keeping the sender name the message started with, and saves
+	 * the edited message to the history if it is still there.
+	 *
+	 * @param config The configuration with the user mappings.
+	 * @param timestamp The Slack timestamp of the original message.
+	 * @param message The relayed Discord message.
+	 * @param newContent The new Slack message content.
+	 */
+	void editDiscordMessage( BotConfig config, String timestamp, Message message, String newContent )
+	{
+		String discordMsg = message.getContentDisplay();
+		StringBuilder slackMessage = new StringBuilder();
+		slackMessage.append( discordMsg.subSequence( 0, discordMsg.indexOf( ' ' ) + 1 ) );
+		slackMessage.append( newContent );
+
+		Message edited = message.editMessage( convertSlackMessage( config, slackMessage.toString(), null ) ).complete();
+		messageHistory.editDiscordMessage( timestamp, edited, MessageHistory.fingerprint( newContent ) );
+	}
+
 	/**
 	 * Converts a Slack message to Discord message style.
 	 *
+	 * @param config The configuration with the user mappings.
 	 * @param slackMessage The slack message sent.
 	 * @param sender The sender of the message OR null if the sender is unknown.
 	 * @return
 	 */
-	private Message convertSlackMessage( String slackMessage, SlackUser sender )
+	private Message convertSlackMessage( BotConfig config, String slackMessage, SlackUser sender )
 	{
 		MessageBuilder discordMessage = new MessageBuilder();
 
@@ -262,8 +362,7 @@ public class SlackConnector
 
 		// Break the message up to parts that are either the message content
 		// or the user mentions.
-		String[] messageParts = slackMessage.split(
-				String.format( Constants.WITH_DELIMITER, "<@U[A-z0-9]{8}>" ) );
+		String[] messageParts = config.getSlackMentionSplitter().split( slackMessage );
 
 		Arrays.stream( messageParts ).forEach( part ->
 		{
@@ -271,10 +370,13 @@ public class SlackConnector
 			if ( part.startsWith( "<@" ) )
 			{
 				String userId = part.substring( 2, part.length() - 1 );
-				LOG.debug( "Finding user with id: " + userId );
+				if ( RelayLog.sampleDebug( LOG ) )
+				{
+					LOG.debug( "Finding user with id: {}", userId );
+				}
 				try
 				{
-					User user = jda.getUserById( UserBiMap.get( userId ) );
+					User user = jda.getUserById( config.getUsers().get( userId ) );
 					discordMessage.append( user );
 				} catch ( IllegalArgumentException e )
 				{
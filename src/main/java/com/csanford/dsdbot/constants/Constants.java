@@ -1,14 +0,0 @@
-package com.csanford.dsdbot.constants;
-
-/**
- *
- * @author csanford
- * #date Dec 27, 2017
- */
-public class Constants
-{
-    public static final String SLACK_CHANNEL = "general";
-    public static final String DISCORD_CHANNEL = "slack_comms";
-    public static final Integer MAX_MSG_HISTORY = 1000;
-	public static final String WITH_DELIMITER = "((?<=%1$s)|(?=%1$s))";
-}
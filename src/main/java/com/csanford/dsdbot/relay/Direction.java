@@ -0,0 +1,13 @@
+package com.csanford.dsdbot.relay;
+
+/**
+ * Which way a message is being relayed.
+ *
+ * @author csanford
+ * #date Oct 19, 2026
+ */
+public enum Direction
+{
+	SLACK_TO_DISCORD,
+	DISCORD_TO_SLACK
+}
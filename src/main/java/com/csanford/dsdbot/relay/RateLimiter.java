@@ -0,0 +1,61 @@
+package com.csanford.dsdbot.relay;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces calls out so no more than a set number happen per second. The rate
+ * can be changed while the limiter is in use.
+ *
+ * @author csanford
+ * #date Oct 19, 2026
+ */
+public class RateLimiter
+{
+
+	private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos( 1 );
+
+	private long intervalNanos;
+	private long nextFreeNanos;
+
+	/**
+	 * Create a rate limiter.
+	 *
+	 * @param permitsPerSecond Calls allowed per second, zero for no limit.
+	 */
+	public RateLimiter( double permitsPerSecond )
+	{
+		this.nextFreeNanos = System.nanoTime();
+		setRate( permitsPerSecond );
+	}
+
+	/**
+	 * Change the rate.
+	 *
+	 * @param permitsPerSecond Calls allowed per second, zero for no limit.
+	 */
+	public final synchronized void setRate( double permitsPerSecond )
+	{
+		intervalNanos = permitsPerSecond > 0 ? (long) ( NANOS_PER_SECOND / permitsPerSecond ) : 0;
+	}
+
+	/**
+	 * Wait until a call is allowed.
+	 *
+	 * @throws InterruptedException Interrupted while waiting.
+	 */
+	public void acquire() throws InterruptedException
+	{
+		long waitNanos;
+		synchronized ( this )
+		{
+			long now = System.nanoTime();
+			long slot = Math.max( nextFreeNanos, now );
+			nextFreeNanos = slot + intervalNanos;
+			waitNanos = slot - now;
+		}
+		if ( waitNanos > 0 )
+		{
+			TimeUnit.NANOSECONDS.sleep( waitNanos );
+		}
+	}
+}
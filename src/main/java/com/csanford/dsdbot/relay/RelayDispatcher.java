@@ -0,0 +1,140 @@
+package com.csanford.dsdbot.relay;
+
+import com.csanford.dsdbot.config.BotConfig;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs relay work off the Slack and Discord listener threads. The pool size,
+ * queue size and rate limit follow the configuration and can be changed while
+ * the bot is running. With a single thread, work runs in the order it was
+ * submitted. With more than one thread an edit, delete or reaction can
+ * overtake earlier work for the same message, so only raise it if that is
+ * acceptable.
+ *
+ * @author csanford
+ * #date Oct 19, 2026
+ */
+public class RelayDispatcher
+{
+
+	private static final Logger LOG = LoggerFactory.getLogger( RelayDispatcher.class );
+
+	private final ThreadPoolExecutor executor;
+	private final RateLimiter rateLimiter;
+	private volatile int queueSize;
+
+	/**
+	 * Create the relay dispatcher.
+	 *
+	 * @param config The configuration to size the dispatcher with.
+	 */
+	public RelayDispatcher( BotConfig config )
+	{
+		int threads = config.getRelayThreads();
+		this.executor = new ThreadPoolExecutor( threads, threads, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), new RelayThreadFactory() );
+		this.rateLimiter = new RateLimiter( config.getRelayRatePerSecond() );
+		this.queueSize = config.getRelayQueueSize();
+	}
+
+	/**
+	 * Queue relay work. If the queue is full the work is dropped. Drops and
+	 * failures are recorded as relay events with the details given here.
+	 * Lookups in the message history belong in the task, so they happen after
+	 * any post queued before them has saved its message.
+	 *
+	 * @param action What is being relayed, e.g. post or delete.
+	 * @param route The name of the route the message is going through, null
+	 * if it isn't known until the task runs.
+	 * @param direction Which way the message is going.
+	 * @param sourceId The ID of the message on the side it came from.
+	 * @param targetId The ID of the message on the other side, null if unknown.
+	 * @param receivedNanos System.nanoTime() when the event was received.
+	 * @param task The work.
+	 */
+	public void submit( String action, String route, Direction direction, Object sourceId,
+			Object targetId, long receivedNanos, RelayTask task )
+	{
+		if ( executor.getQueue().size() >= queueSize )
+		{
+			LOG.warn( "Relay queue is full, dropping {} {} {}", direction, action, sourceId );
+			RelayLog.dropped( action, route, direction, sourceId, targetId, receivedNanos );
+			return;
+		}
+		executor.execute( () ->
+		{
+			try
+			{
+				task.run();
+			} catch ( InterruptedException ex )
+			{
+				Thread.currentThread().interrupt();
+			} catch ( RuntimeException ex )
+			{
+				LOG.error( "Relay failed: {} {} {}", direction, action, sourceId, ex );
+				RelayLog.failed( action, route, direction, sourceId, targetId, receivedNanos, ex );
+			}
+		} );
+	}
+
+	/**
+	 * Wait until the rate limit allows another call to Slack or Discord. Tasks
+	 * call this right before their first call.
+	 *
+	 * @throws InterruptedException Interrupted while waiting.
+	 */
+	public void acquire() throws InterruptedException
+	{
+		rateLimiter.acquire();
+	}
+
+	/**
+	 * Check whether there is any relay work queued or running.
+	 *
+	 * @return True if the dispatcher has nothing to do.
+	 */
+	public boolean isIdle()
+	{
+		return executor.getActiveCount() == 0 && executor.getQueue().isEmpty();
+	}
+
+	/**
+	 * Apply a new configuration to the dispatcher.
+	 *
+	 * @param config The new configuration.
+	 */
+	public void applyConfig( BotConfig config )
+	{
+		int threads = config.getRelayThreads();
+		// The core size can never be larger than the maximum, so order matters
+		if ( threads > executor.getMaximumPoolSize() )
+		{
+			executor.setMaximumPoolSize( threads );
+			executor.setCorePoolSize( threads );
+		} else
+		{
+			executor.setCorePoolSize( threads );
+			executor.setMaximumPoolSize( threads );
+		}
+		queueSize = config.getRelayQueueSize();
+		rateLimiter.setRate( config.getRelayRatePerSecond() );
+	}
+
+	private static class RelayThreadFactory implements ThreadFactory
+	{
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread( Runnable runnable )
+		{
+			return new Thread( runnable, "relay-" + count.incrementAndGet() );
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package com.csanford.dsdbot.relay;
+
+import com.csanford.dsdbot.config.BotConfig;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Structured relay event records and sampled debug logging for the relay
+ * path. Event records go to their own logger, which log4j2.xml writes out as
+ * one JSON object per line. The Log4j API is used directly here because it
+ * takes up to ten parameters without allocating a varargs array. Event
+ * records are never dropped, so if the async logging buffer is full the
+ * calling thread waits for room.
+ *
+ * @author csanford
+ * #date Oct 19, 2026
+ */
+public final class RelayLog
+{
+
+	private static final Logger EVENTS = LogManager.getLogger( "com.csanford.dsdbot.relay.events" );
+	private static final AtomicLong DEBUG_COUNTER = new AtomicLong();
+	private static volatile int debugSample = 1;
+
+	private RelayLog()
+	{
+	}
+
+	/**
+	 * Apply a new debug sample rate.
+	 *
+	 * @param config The new configuration.
+	 */
+	public static void applyConfig( BotConfig config )
+	{
+		debugSample = config.getDebugSample();
+	}
+
+	/**
+	 * Decide whether a debug message on the relay path should be logged. Only
+	 * one in every logging.debug.sample calls is let through, so debug logging
+	 * can stay on under load.
+	 *
+	 * @param log The logger the debug message would go to.
+	 * @return True if the debug message should be logged.
+	 */
+	public static boolean sampleDebug( org.slf4j.Logger log )
+	{
+		if ( !log.isDebugEnabled() )
+		{
+			return false;
+		}
+		int sample = debugSample;
+		return sample <= 1 || DEBUG_COUNTER.incrementAndGet() % sample == 0;
+	}
+
+	/**
+	 * Record a message that was relayed successfully.
+	 *
+	 * @param action What was relayed, e.g. post or delete.
+	 * @param route The name of the route the message went through.
+	 * @param direction Which way the message went.
+	 * @param sourceId The ID of the message on the side it came from.
+	 * @param targetId The ID of the message on the side it went to.
+	 * @param receivedNanos System.nanoTime() when the event was received.
+	 */
+	public static void relayed( String action, String route, Direction direction,
+			Object sourceId, Object targetId, long receivedNanos )
+	{
+		record( Level.INFO, "relayed", action, route, direction, sourceId, targetId, receivedNanos, null );
+	}
+
+	/**
+	 * Record a relay that threw an exception.
+	 *
+	 * @param action What was being relayed, e.g. post or delete.
+	 * @param route The name of the route the message was going through, null
+	 * if unknown.
+	 * @param direction Which way the message was going.
+	 * @param sourceId The ID of the message on the side it came from.
+	 * @param targetId The ID of the message on the other side, null if unknown.
+	 * @param receivedNanos System.nanoTime() when the event was received.
+	 * @param error What went wrong.
+	 */
+	public static void failed( String action, String route, Direction direction,
+			Object sourceId, Object targetId, long receivedNanos, Throwable error )
+	{
+		record( Level.ERROR, "failed", action, route, direction, sourceId, targetId, receivedNanos, error );
+	}
+
+	/**
+	 * Record a relay that was dropped because the relay queue was full.
+	 *
+	 * @param action What was being relayed, e.g. post or delete.
+	 * @param route The name of the route the message was going through, null
+	 * if unknown.
+	 * @param direction Which way the message was going.
+	 * @param sourceId The ID of the message on the side it came from.
+	 * @param targetId The ID of the message on the other side, null if unknown.
+	 * @param receivedNanos System.nanoTime() when the event was received.
+	 */
+	public static void dropped( String action, String route, Direction direction,
+			Object sourceId, Object targetId, long receivedNanos )
+	{
+		record( Level.WARN, "dropped", action, route, direction, sourceId, targetId, receivedNanos, null );
+	}
+
+	private static void record( Level level, String outcome, String action, String route, Direction direction,
+			Object sourceId, Object targetId, long receivedNanos, Throwable error )
+	{
+		if ( EVENTS.isEnabled( level ) )
+		{
+			long latencyMillis = TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - receivedNanos );
+			// A trailing Throwable with no placeholder is logged as the exception
+			EVENTS.log( level, "{} {} {} {} -> {} in {}ms: {}", action, route, direction.name(),
+					sourceId, targetId, latencyMillis, outcome, error );
+		}
+	}
+}
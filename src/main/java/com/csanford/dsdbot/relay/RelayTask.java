@@ -0,0 +1,21 @@
+package com.csanford.dsdbot.relay;
+
+/**
+ * Relay work run by the relay dispatcher. A task that calls Slack or Discord
+ * must call RelayDispatcher.acquire() first, so tasks that find nothing to
+ * relay don't use up the rate limit.
+ *
+ * @author csanford
+ * #date Oct 19, 2026
+ */
+@FunctionalInterface
+public interface RelayTask
+{
+
+	/**
+	 * Do the work.
+	 *
+	 * @throws InterruptedException Interrupted while waiting for the rate limit.
+	 */
+	void run() throws InterruptedException;
+}
@@ -0,0 +1,123 @@
+package com.csanford.dsdbot;
+
+import com.csanford.dsdbot.config.BotConfig;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for how MessageHistory bounds and evicts its entries.
+ *
+ * @author csanford
+ * #date Oct 19, 2026
+ */
+public class MessageHistoryTest
+{
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private BotConfig config( int capacity, String eviction ) throws IOException
+	{
+		Path file = folder.newFile().toPath();
+		Files.write( file, Arrays.asList( "discord.token=d", "slack.token=s",
+				"history.capacity=" + capacity, "history.eviction=" + eviction ), StandardCharsets.UTF_8 );
+		return BotConfig.load( file );
+	}
+
+	private static void save( MessageHistory history, long... messageIds )
+	{
+		for ( long messageId : messageIds )
+		{
+			history.saveSlackMessage( messageId, "100.00000" + messageId, "C1", 10, "general:slack_comms",
+					messageId );
+		}
+	}
+
+	@Test
+	public void fifoEvictsFirstSaved() throws IOException
+	{
+		MessageHistory history = new MessageHistory( config( 3, "FIFO" ) );
+		save( history, 1, 2, 3 );
+		history.getSlackEntry( 1L );
+		save( history, 4 );
+		assertNull( history.getSlackEntry( 1L ) );
+		assertEquals( Arrays.asList( 2L, 3L, 4L ), new ArrayList<>( history.getSlackEntries().keySet() ) );
+	}
+
+	@Test
+	public void lruEvictsLeastRecentlyLookedUp() throws IOException
+	{
+		MessageHistory history = new MessageHistory( config( 3, "LRU" ) );
+		save( history, 1, 2, 3 );
+		assertNotNull( history.getSlackEntry( 1L ) );
+		save( history, 4 );
+		assertNull( history.getSlackEntry( 2L ) );
+		assertEquals( Arrays.asList( 3L, 1L, 4L ), new ArrayList<>( history.getSlackEntries().keySet() ) );
+	}
+
+	@Test
+	public void lruEditCountsAsUse() throws IOException
+	{
+		MessageHistory history = new MessageHistory( config( 3, "LRU" ) );
+		save( history, 1, 2, 3 );
+		history.editSlackMessage( 1L, 99 );
+		save( history, 4 );
+		assertNull( history.getSlackEntry( 2L ) );
+		assertEquals( 99, history.getSlackEntry( 1L ).getFingerprint() );
+	}
+
+	@Test
+	public void listingEntriesIsNotUse() throws IOException
+	{
+		MessageHistory history = new MessageHistory( config( 3, "LRU" ) );
+		save( history, 1, 2, 3 );
+		history.getSlackEntries().get( 1L );
+		save( history, 4 );
+		assertNull( history.getSlackEntry( 1L ) );
+	}
+
+	@Test
+	public void shrinkingKeepsNewest() throws IOException
+	{
+		MessageHistory history = new MessageHistory( config( 5, "FIFO" ) );
+		save( history, 1, 2, 3, 4, 5 );
+		history.applyConfig( config( 2, "FIFO" ) );
+		assertEquals( Arrays.asList( 4L, 5L ), new ArrayList<>( history.getSlackEntries().keySet() ) );
+		save( history, 6 );
+		assertEquals( Arrays.asList( 5L, 6L ), new ArrayList<>( history.getSlackEntries().keySet() ) );
+	}
+
+	@Test
+	public void shrinkingLruKeepsMostRecentlyUsed() throws IOException
+	{
+		MessageHistory history = new MessageHistory( config( 4, "LRU" ) );
+		save( history, 1, 2, 3, 4 );
+		history.getSlackEntry( 1L );
+		history.applyConfig( config( 2, "LRU" ) );
+		assertEquals( Arrays.asList( 4L, 1L ), new ArrayList<>( history.getSlackEntries().keySet() ) );
+	}
+
+	@Test
+	public void growingKeepsEverything() throws IOException
+	{
+		MessageHistory history = new MessageHistory( config( 2, "FIFO" ) );
+		save( history, 1, 2 );
+		history.applyConfig( config( 3, "LRU" ) );
+		save( history, 3 );
+		assertEquals( Arrays.asList( 1L, 2L, 3L ), new ArrayList<>( history.getSlackEntries().keySet() ) );
+		history.getSlackEntry( 1L );
+		save( history, 4 );
+		assertEquals( Arrays.asList( 3L, 1L, 4L ), new ArrayList<>( history.getSlackEntries().keySet() ) );
+	}
+}
@@ -0,0 +1,191 @@
+package com.csanford.dsdbot.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for loading and validating BotConfig.
+ *
+ * @author csanford
+ * #date Oct 19, 2026
+ */
+public class BotConfigTest
+{
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private BotConfig load( Map<String, String> env, String... lines ) throws IOException
+	{
+		Path file = folder.newFile().toPath();
+		Files.write( file, Arrays.asList( lines ), StandardCharsets.UTF_8 );
+		return BotConfig.load( file, env );
+	}
+
+	private BotConfig load( String... lines ) throws IOException
+	{
+		return load( Collections.emptyMap(), lines );
+	}
+
+	private void assertInvalid( String... lines ) throws IOException
+	{
+		try
+		{
+			load( lines );
+			fail( "Expected the configuration to be rejected" );
+		} catch ( IllegalArgumentException ex )
+		{
+			// Expected
+		}
+	}
+
+	@Test
+	public void defaultsApplyWhenUnset() throws IOException
+	{
+		BotConfig config = load( "discord.token=d", "slack.token=s" );
+		assertEquals( 1, config.getRoutes().size() );
+		assertEquals( "general:slack_comms", config.getRoutes().get( 0 ).getName() );
+		assertEquals( 1000, config.getHistoryCapacity() );
+		assertEquals( EvictionPolicy.FIFO, config.getHistoryEviction() );
+		assertEquals( 1, config.getRelayThreads() );
+		assertEquals( 300, config.getReconcileIntervalSeconds() );
+		assertEquals( 100, config.getReconcilePageSize() );
+	}
+
+	@Test
+	public void routesAreParsedWithTheFirstAsDefault() throws IOException
+	{
+		BotConfig config = load( "discord.token=d", "slack.token=s",
+				"routes=general:slack_comms, random:OffTopic,," );
+		assertEquals( 2, config.getRoutes().size() );
+		assertEquals( "offtopic", config.routeForSlackChannel( "random" ).getDiscordChannel().toLowerCase() );
+		assertEquals( "random", config.routeForDiscordChannel( "offtopic" ).getSlackChannel() );
+		assertEquals( "general", config.routeForSlackChannel( "unrouted" ).getSlackChannel() );
+		assertEquals( "general", config.routeForDiscordChannel( "unrouted" ).getSlackChannel() );
+		assertEquals( "general", config.routeForDiscordChannel( null ).getSlackChannel() );
+	}
+
+	@Test
+	public void emptyRoutesAreRejected() throws IOException
+	{
+		assertInvalid( "discord.token=d", "slack.token=s", "routes= , " );
+	}
+
+	@Test
+	public void missingTokenIsRejected() throws IOException
+	{
+		assertInvalid( "discord.token=d", "slack.token= " );
+	}
+
+	@Test
+	public void usersMapBothWays() throws IOException
+	{
+		BotConfig config = load( "discord.token=d", "slack.token=s", "users.randy=123:U456" );
+		assertEquals( "U456", config.getUsers().get( "123" ) );
+		assertEquals( "123", config.getUsers().get( "U456" ) );
+		assertNull( config.getUsers().get( "789" ) );
+	}
+
+	@Test
+	public void invalidUserMappingIsRejected() throws IOException
+	{
+		assertInvalid( "discord.token=d", "slack.token=s", "users.randy=123" );
+	}
+
+	@Test
+	public void valuesBelowMinimumAreRejected() throws IOException
+	{
+		assertInvalid( "discord.token=d", "slack.token=s", "history.capacity=0" );
+		assertInvalid( "discord.token=d", "slack.token=s", "relay.threads=0" );
+		assertInvalid( "discord.token=d", "slack.token=s", "reconcile.interval.seconds=-1" );
+		assertInvalid( "discord.token=d", "slack.token=s", "relay.rate.per.second=-1" );
+		assertInvalid( "discord.token=d", "slack.token=s", "reconcile.rate.per.second=0" );
+	}
+
+	@Test
+	public void valuesAtMinimumAreAccepted() throws IOException
+	{
+		BotConfig config = load( "discord.token=d", "slack.token=s", "history.capacity=1",
+				"reconcile.interval.seconds=0", "relay.rate.per.second=0" );
+		assertEquals( 1, config.getHistoryCapacity() );
+		assertEquals( 0, config.getReconcileIntervalSeconds() );
+		assertEquals( 0, config.getRelayRatePerSecond(), 0 );
+	}
+
+	@Test
+	public void pageSizeAboveMaximumIsRejected() throws IOException
+	{
+		assertEquals( 100, load( "discord.token=d", "slack.token=s", "reconcile.page.size=100" )
+				.getReconcilePageSize() );
+		assertInvalid( "discord.token=d", "slack.token=s", "reconcile.page.size=101" );
+	}
+
+	@Test
+	public void invalidValuesAreRejected() throws IOException
+	{
+		assertInvalid( "discord.token=d", "slack.token=s", "relay.queue.size=lots" );
+		assertInvalid( "discord.token=d", "slack.token=s", "history.eviction=RANDOM" );
+		assertInvalid( "discord.token=d", "slack.token=s", "mention.slack=<@(" );
+	}
+
+	@Test
+	public void evictionIsCaseInsensitive() throws IOException
+	{
+		assertEquals( EvictionPolicy.LRU,
+				load( "discord.token=d", "slack.token=s", "history.eviction=lru" ).getHistoryEviction() );
+	}
+
+	@Test
+	public void environmentOverridesFile() throws IOException
+	{
+		Map<String, String> env = new HashMap<>();
+		env.put( "DSDBOT_SLACK_TOKEN", "from-env" );
+		env.put( "DSDBOT_RELAY_THREADS", "4" );
+		env.put( "DSDBOT_USERS_RANDY", "123:U456" );
+		env.put( "RELAY_THREADS", "8" );
+		BotConfig config = load( env, "discord.token=d", "slack.token=s", "relay.threads=2" );
+		assertEquals( "from-env", config.getSlackToken() );
+		assertEquals( 4, config.getRelayThreads() );
+		assertEquals( "U456", config.getUsers().get( "123" ) );
+	}
+
+	@Test
+	public void environmentAloneIsEnough() throws IOException
+	{
+		Map<String, String> env = new HashMap<>();
+		env.put( "DSDBOT_DISCORD_TOKEN", "d" );
+		env.put( "DSDBOT_SLACK_TOKEN", "s" );
+		BotConfig config = BotConfig.load( folder.getRoot().toPath().resolve( "missing.properties" ), env );
+		assertEquals( "d", config.getDiscordToken() );
+	}
+
+	@Test
+	public void blankMentionPatternFallsBackToDefault() throws IOException
+	{
+		BotConfig defaults = load( "discord.token=d", "slack.token=s" );
+		BotConfig blank = load( "discord.token=d", "slack.token=s", "mention.discord=  ", "mention.slack=" );
+		assertEquals( defaults.getDiscordMentionSplitter().pattern(), blank.getDiscordMentionSplitter().pattern() );
+		assertEquals( defaults.getSlackMentionSplitter().pattern(), blank.getSlackMentionSplitter().pattern() );
+	}
+
+	@Test
+	public void mentionSplitterKeepsMentions() throws IOException
+	{
+		BotConfig config = load( "discord.token=d", "slack.token=s" );
+		assertEquals( Arrays.asList( "hi ", "<@U12345678>", " there" ),
+				Arrays.asList( config.getSlackMentionSplitter().split( "hi <@U12345678> there" ) ) );
+	}
+}
@@ -0,0 +1,204 @@
+package com.csanford.dsdbot.connector;
+
+import com.csanford.dsdbot.connector.DriftPlanner.Fix;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the reconciliation rules in DriftPlanner.
+ *
+ * @author csanford
+ * #date Oct 19, 2026
+ */
+public class DriftPlannerTest
+{
+
+	private static final String SLACK_CHANNEL = "C1";
+	private static final String OTHER_SLACK_CHANNEL = "C2";
+	private static final long DISCORD_CHANNEL = 10;
+	private static final long OTHER_DISCORD_CHANNEL = 20;
+
+	private Map<String, Long> slackPage;
+	private String oldestSlackTimestamp;
+	private boolean slackHasMore;
+	private Map<Long, Long> discordPage;
+	private boolean discordHasMore;
+
+	@Before
+	public void setUp()
+	{
+		// Both sides have older history, so anything older than 100.000001 and
+		// 1001 can't be judged
+		slackPage = new HashMap<>();
+		slackPage.put( "100.000001", 1L );
+		slackPage.put( "100.000002", 2L );
+		slackPage.put( "100.000003", 3L );
+		oldestSlackTimestamp = "100.000001";
+		slackHasMore = true;
+		discordPage = new HashMap<>();
+		discordPage.put( 1001L, 11L );
+		discordPage.put( 1002L, 12L );
+		discordPage.put( 1003L, 13L );
+		discordHasMore = true;
+	}
+
+	private DriftPlanner planner()
+	{
+		return new DriftPlanner( SLACK_CHANNEL, slackPage, oldestSlackTimestamp, slackHasMore,
+				DISCORD_CHANNEL, discordPage, discordHasMore );
+	}
+
+	@Test
+	public void slackMessageInSyncIsLeftAlone()
+	{
+		assertEquals( Fix.NONE,
+				planner().planSlackToDiscord( "100.000002", SLACK_CHANNEL, null, DISCORD_CHANNEL, 1002, 2 ) );
+	}
+
+	@Test
+	public void slackDeleteDeletesCopy()
+	{
+		assertEquals( Fix.DELETE_TARGET,
+				planner().planSlackToDiscord( "100.000004", SLACK_CHANNEL, null, DISCORD_CHANNEL, 1002, 2 ) );
+	}
+
+	@Test
+	public void slackEditUpdatesCopy()
+	{
+		assertEquals( Fix.UPDATE_TARGET,
+				planner().planSlackToDiscord( "100.000002", SLACK_CHANNEL, null, DISCORD_CHANNEL, 1002, 99 ) );
+	}
+
+	@Test
+	public void slackDeleteOnBothSidesIsForgotten()
+	{
+		assertEquals( Fix.FORGET,
+				planner().planSlackToDiscord( "100.000004", SLACK_CHANNEL, null, DISCORD_CHANNEL, 1004, 2 ) );
+	}
+
+	@Test
+	public void discordDeleteOfSlackCopyIsForgotten()
+	{
+		assertEquals( Fix.FORGET,
+				planner().planSlackToDiscord( "100.000002", SLACK_CHANNEL, null, DISCORD_CHANNEL, 1004, 2 ) );
+	}
+
+	@Test
+	public void slackMessageFromAnotherChannelIsLeftAlone()
+	{
+		// Relayed through the default route, so it lands in the paged Discord
+		// channel but never shows up in the paged Slack channel
+		assertEquals( Fix.NONE,
+				planner().planSlackToDiscord( "100.000004", OTHER_SLACK_CHANNEL, null, DISCORD_CHANNEL, 1002, 2 ) );
+	}
+
+	@Test
+	public void slackMessageToAnotherChannelIsLeftAlone()
+	{
+		assertEquals( Fix.NONE,
+				planner().planSlackToDiscord( "100.000004", SLACK_CHANNEL, null, OTHER_DISCORD_CHANNEL, 1002, 2 ) );
+	}
+
+	@Test
+	public void slackThreadReplyIsLeftAlone()
+	{
+		assertEquals( Fix.NONE,
+				planner().planSlackToDiscord( "100.000004", SLACK_CHANNEL, "100.000002", DISCORD_CHANNEL, 1002, 2 ) );
+	}
+
+	@Test
+	public void slackThreadParentIsJudged()
+	{
+		assertEquals( Fix.DELETE_TARGET,
+				planner().planSlackToDiscord( "100.000004", SLACK_CHANNEL, "100.000004", DISCORD_CHANNEL, 1002, 2 ) );
+	}
+
+	@Test
+	public void slackMessageOlderThanPageIsLeftAlone()
+	{
+		assertEquals( Fix.NONE,
+				planner().planSlackToDiscord( "99.000001", SLACK_CHANNEL, null, DISCORD_CHANNEL, 1002, 2 ) );
+	}
+
+	@Test
+	public void slackCopyOlderThanPageIsLeftAlone()
+	{
+		assertEquals( Fix.NONE,
+				planner().planSlackToDiscord( "100.000004", SLACK_CHANNEL, null, DISCORD_CHANNEL, 999, 2 ) );
+	}
+
+	@Test
+	public void filteredSlackPageIsBoundedByOldestEntry()
+	{
+		// A join and a file share were left out of the page, so it is short
+		// even though there is older history
+		slackPage.remove( "100.000001" );
+		oldestSlackTimestamp = "99.000001";
+		assertEquals( Fix.NONE,
+				planner().planSlackToDiscord( "98.000001", SLACK_CHANNEL, null, DISCORD_CHANNEL, 1002, 2 ) );
+		assertEquals( Fix.DELETE_TARGET,
+				planner().planSlackToDiscord( "100.000001", SLACK_CHANNEL, null, DISCORD_CHANNEL, 1002, 2 ) );
+	}
+
+	@Test
+	public void slackPageWithoutMoreHistoryHoldsWholeChannel()
+	{
+		slackHasMore = false;
+		assertEquals( Fix.DELETE_TARGET,
+				planner().planSlackToDiscord( "99.000001", SLACK_CHANNEL, null, DISCORD_CHANNEL, 1002, 2 ) );
+	}
+
+	@Test
+	public void discordMessageInSyncIsLeftAlone()
+	{
+		assertEquals( Fix.NONE,
+				planner().planDiscordToSlack( 1002, DISCORD_CHANNEL, SLACK_CHANNEL, "100.000002", 12 ) );
+	}
+
+	@Test
+	public void discordDeleteDeletesCopy()
+	{
+		assertEquals( Fix.DELETE_TARGET,
+				planner().planDiscordToSlack( 1004, DISCORD_CHANNEL, SLACK_CHANNEL, "100.000002", 12 ) );
+	}
+
+	@Test
+	public void discordEditUpdatesCopy()
+	{
+		assertEquals( Fix.UPDATE_TARGET,
+				planner().planDiscordToSlack( 1002, DISCORD_CHANNEL, SLACK_CHANNEL, "100.000002", 99 ) );
+	}
+
+	@Test
+	public void discordMessageFromAnotherChannelIsLeftAlone()
+	{
+		assertEquals( Fix.NONE,
+				planner().planDiscordToSlack( 1004, OTHER_DISCORD_CHANNEL, SLACK_CHANNEL, "100.000002", 12 ) );
+	}
+
+	@Test
+	public void discordMessageToAnotherChannelIsLeftAlone()
+	{
+		assertEquals( Fix.NONE,
+				planner().planDiscordToSlack( 1004, DISCORD_CHANNEL, OTHER_SLACK_CHANNEL, "100.000002", 12 ) );
+	}
+
+	@Test
+	public void discordMessageOlderThanPageIsLeftAlone()
+	{
+		assertEquals( Fix.NONE,
+				planner().planDiscordToSlack( 999, DISCORD_CHANNEL, SLACK_CHANNEL, "100.000002", 12 ) );
+	}
+
+	@Test
+	public void discordPageWithoutMoreHistoryHoldsWholeChannel()
+	{
+		discordHasMore = false;
+		assertEquals( Fix.DELETE_TARGET,
+				planner().planDiscordToSlack( 999, DISCORD_CHANNEL, SLACK_CHANNEL, "100.000002", 12 ) );
+	}
+}